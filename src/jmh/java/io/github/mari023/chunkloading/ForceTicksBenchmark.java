@@ -0,0 +1,158 @@
+package io.github.mari023.chunkloading;
+
+import it.unimi.dsi.fastutil.longs.LongCollection;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.util.Unit;
+import net.minecraft.world.level.ChunkPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the distance manager side: the {@code shouldForceTicks} probe done for every loaded chunk each tick, sharing tickets between owners and sorting
+ * persistent tickets for staggered reinstatement. The distance manager itself is a mixin target, so this benchmarks the classes it delegates to.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ForceTicksBenchmark {
+    private static final TicketType<Unit> TYPE = TicketType.create("benchmark", (a, b) -> 0);
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int tickets;
+
+    private TicketDataset dataset;
+    private final ForcedTicks forcedTickets = new ForcedTicks();
+    /**
+     * The chunks loaded around a player, which are probed every tick.
+     */
+    private long[] loadedChunks;
+
+    @Setup(Level.Trial)
+    public void createDataset() {
+        dataset = new TicketDataset(tickets, 32);
+        for (TicketDataset.Owner<?> owner : dataset.blockOwners) {
+            if (owner.ticking()) {
+                for (long chunk : owner.chunks()) {
+                    forcedTickets.add(chunk);
+                }
+            }
+        }
+        int viewDistance = 12;
+        loadedChunks = new long[(viewDistance * 2 + 1) * (viewDistance * 2 + 1)];
+        int i = 0;
+        for (int x = -viewDistance; x <= viewDistance; x++) {
+            for (int z = -viewDistance; z <= viewDistance; z++) {
+                loadedChunks[i++] = ChunkPos.asLong(x, z);
+            }
+        }
+    }
+
+    @Benchmark
+    public int shouldForceTicks() {
+        int forced = 0;
+        for (long chunk : loadedChunks) {
+            if (forcedTickets.contains(chunk))
+                forced++;
+        }
+        return forced;
+    }
+
+    @Benchmark
+    public Object shareTickets() {
+        SharedTickets sharedTickets = new SharedTickets();
+        for (TicketDataset.Owner<?> owner : dataset.blockOwners) {
+            for (long chunk : owner.chunks()) {
+                sharedTickets.acquire(TYPE, chunk, 31, Unit.INSTANCE);
+            }
+        }
+        for (TicketDataset.Owner<?> owner : dataset.blockOwners) {
+            for (long chunk : owner.chunks()) {
+                sharedTickets.release(TYPE, chunk);
+            }
+        }
+        return sharedTickets;
+    }
+
+    @Benchmark
+    public int reinstate() {
+        TicketReinstatement reinstatement = new TicketReinstatement();
+        for (TicketDataset.Owner<?> owner : dataset.blockOwners) {
+            reinstatement.add(TYPE, owner.chunks(), 2, Unit.INSTANCE, owner.ticking());
+        }
+        reinstatement.sort(0, 0);
+        return reinstatement.reinstate(NoopDistanceManager.INSTANCE, 0, 0);
+    }
+
+    /**
+     * Distance manager that only accepts tickets, so reinstating measures the queue itself.
+     */
+    private enum NoopDistanceManager implements AdditionalDistanceManager {
+        INSTANCE;
+
+        private final TicketReinstatement ticketReinstatement = new TicketReinstatement();
+
+        @Override
+        public <T> void addRegionTicket(TicketType<T> ticketType, ChunkPos chunkPos, int i, T object, boolean forceTicks) {
+        }
+
+        @Override
+        public <T> void removeRegionTicket(TicketType<T> ticketType, ChunkPos chunkPos, int i, T object, boolean forceTicks) {
+        }
+
+        @Override
+        public <T> void addRegionTicket(TicketType<T> ticketType, long chunk, int i, T object, boolean forceTicks) {
+        }
+
+        @Override
+        public <T> void removeRegionTicket(TicketType<T> ticketType, long chunk, int i, T object, boolean forceTicks) {
+        }
+
+        @Override
+        public <T> void addRegionTickets(TicketType<T> ticketType, LongCollection chunks, int i, T object, boolean forceTicks) {
+        }
+
+        @Override
+        public <T> void removeRegionTickets(TicketType<T> ticketType, LongCollection chunks, int i, T object, boolean forceTicks) {
+        }
+
+        @Override
+        public TicketReinstatement getTicketReinstatement() {
+            return ticketReinstatement;
+        }
+
+        @Override
+        public boolean hasForcedTicks() {
+            return false;
+        }
+
+        @Override
+        public boolean shouldForceTicks(long chunkPos) {
+            return false;
+        }
+
+        @Override
+        public boolean isEntityTickingWithoutForgeTickets(long chunkPos) {
+            return false;
+        }
+
+        @Override
+        public int getForcedTickingChunkCount() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.mari023.chunkloading;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtIo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of taking a snapshot and of encoding and decoding the forge forced chunks, including the compressed NBT IO done when {@code chunks.dat} is saved.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ForcedChunksNbtBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int tickets;
+    @Param({"32"})
+    public int mods;
+
+    private TicketTracker<BlockPos> blockForcedChunks;
+    private TicketTracker<UUID> entityForcedChunks;
+    private TicketSnapshot<BlockPos> blockSnapshot;
+    private TicketSnapshot<UUID> entitySnapshot;
+    private byte[] saved;
+
+    @Setup(Level.Trial)
+    public void createDataset() throws IOException {
+        blockForcedChunks = new BlockTicketTracker();
+        entityForcedChunks = new TicketTracker<>();
+        new TicketDataset(tickets, mods).fill(blockForcedChunks, entityForcedChunks);
+        blockSnapshot = blockForcedChunks.snapshot();
+        entitySnapshot = entityForcedChunks.snapshot();
+        saved = write();
+    }
+
+    @Benchmark
+    public Object snapshot() {
+        //Change the version so the cached snapshot isn't reused
+        blockForcedChunks.add("benchmark", BlockPos.ZERO, 0, false);
+        blockForcedChunks.remove("benchmark", BlockPos.ZERO, 0, false);
+        return blockForcedChunks.snapshot();
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        CompoundTag nbt = new CompoundTag();
+        PackedForcedChunks.write(nbt, blockSnapshot, entitySnapshot);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        NbtIo.writeCompressed(nbt, output);
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    public Object read() throws IOException {
+        CompoundTag nbt = NbtIo.readCompressed(new ByteArrayInputStream(saved));
+        TicketTracker<BlockPos> blockForcedChunks = new BlockTicketTracker();
+        TicketTracker<UUID> entityForcedChunks = new TicketTracker<>();
+        PackedForcedChunks.read(nbt, blockForcedChunks, entityForcedChunks, modId -> true);
+        return blockForcedChunks;
+    }
+}
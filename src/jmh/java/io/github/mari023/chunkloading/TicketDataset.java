@@ -0,0 +1,63 @@
+package io.github.mari023.chunkloading;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Synthetic forced chunk tickets, generated from a fixed seed so every run and release benchmarks the same data. Owners are spread over the mods, each owner
+ * forces a small square of chunks around itself and every fourth owner's tickets are fully ticking.
+ */
+class TicketDataset {
+    static final int CHUNKS_PER_OWNER = 9;
+
+    final List<String> modIds = new ArrayList<>();
+    final List<Owner<BlockPos>> blockOwners = new ArrayList<>();
+    final List<Owner<UUID>> entityOwners = new ArrayList<>();
+
+    TicketDataset(int tickets, int mods) {
+        Random random = new Random(0x5EED);
+        for (int i = 0; i < mods; i++) {
+            modIds.add("mod" + i);
+        }
+        int owners = Math.max(1, tickets / CHUNKS_PER_OWNER);
+        //Keep the chunks dense enough that owners overlap, like chunk loaders in a base
+        int range = Math.max(1, (int) Math.sqrt(tickets));
+        for (int i = 0; i < owners; i++) {
+            String modId = modIds.get(random.nextInt(mods));
+            int chunkX = random.nextInt(range) - range / 2;
+            int chunkZ = random.nextInt(range) - range / 2;
+            LongList chunks = new LongArrayList(CHUNKS_PER_OWNER);
+            for (int x = -1; x <= 1; x++) {
+                for (int z = -1; z <= 1; z++) {
+                    chunks.add(ChunkPos.asLong(chunkX + x, chunkZ + z));
+                }
+            }
+            boolean ticking = i % 4 == 0;
+            if (i % 2 == 0) {
+                BlockPos pos = new BlockPos(chunkX * 16 + random.nextInt(16), random.nextInt(320) - 64, chunkZ * 16 + random.nextInt(16));
+                blockOwners.add(new Owner<>(modId, pos, chunks, ticking));
+            } else {
+                entityOwners.add(new Owner<>(modId, new UUID(random.nextLong(), random.nextLong()), chunks, ticking));
+            }
+        }
+    }
+
+    void fill(TicketTracker<BlockPos> blockForcedChunks, TicketTracker<UUID> entityForcedChunks) {
+        for (Owner<BlockPos> owner : blockOwners) {
+            blockForcedChunks.addAll(owner.modId, owner.owner, owner.chunks, owner.ticking);
+        }
+        for (Owner<UUID> owner : entityOwners) {
+            entityForcedChunks.addAll(owner.modId, owner.owner, owner.chunks, owner.ticking);
+        }
+    }
+
+    record Owner<T>(String modId, T owner, LongList chunks, boolean ticking) {
+    }
+}
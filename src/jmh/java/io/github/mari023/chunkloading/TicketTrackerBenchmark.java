@@ -0,0 +1,109 @@
+package io.github.mari023.chunkloading;
+
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.minecraft.core.BlockPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of adding and removing single tickets, and of looking up the owners of a chunk.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TicketTrackerBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int tickets;
+    @Param({"1", "32"})
+    public int mods;
+
+    private TicketDataset dataset;
+    private TicketTracker<BlockPos> blockForcedChunks;
+    private TicketTracker<UUID> entityForcedChunks;
+
+    @Setup(Level.Trial)
+    public void createDataset() {
+        dataset = new TicketDataset(tickets, mods);
+        blockForcedChunks = new BlockTicketTracker();
+        entityForcedChunks = new TicketTracker<>();
+        dataset.fill(blockForcedChunks, entityForcedChunks);
+    }
+
+    @Benchmark
+    public Object add() {
+        TicketTracker<BlockPos> blockForcedChunks = new BlockTicketTracker();
+        TicketTracker<UUID> entityForcedChunks = new TicketTracker<>();
+        for (TicketDataset.Owner<BlockPos> owner : dataset.blockOwners) {
+            LongList chunks = owner.chunks();
+            for (int i = 0; i < chunks.size(); i++) {
+                blockForcedChunks.add(owner.modId(), owner.owner(), chunks.getLong(i), owner.ticking());
+            }
+        }
+        for (TicketDataset.Owner<UUID> owner : dataset.entityOwners) {
+            LongList chunks = owner.chunks();
+            for (int i = 0; i < chunks.size(); i++) {
+                entityForcedChunks.add(owner.modId(), owner.owner(), chunks.getLong(i), owner.ticking());
+            }
+        }
+        return blockForcedChunks;
+    }
+
+    @Benchmark
+    public Object remove(FilledTrackers filled) {
+        TicketTracker<BlockPos> blockForcedChunks = filled.blockForcedChunks;
+        TicketTracker<UUID> entityForcedChunks = filled.entityForcedChunks;
+        for (TicketDataset.Owner<BlockPos> owner : dataset.blockOwners) {
+            LongList chunks = owner.chunks();
+            for (int i = 0; i < chunks.size(); i++) {
+                blockForcedChunks.remove(owner.modId(), owner.owner(), chunks.getLong(i), owner.ticking());
+            }
+        }
+        for (TicketDataset.Owner<UUID> owner : dataset.entityOwners) {
+            LongList chunks = owner.chunks();
+            for (int i = 0; i < chunks.size(); i++) {
+                entityForcedChunks.remove(owner.modId(), owner.owner(), chunks.getLong(i), owner.ticking());
+            }
+        }
+        return blockForcedChunks;
+    }
+
+    @Benchmark
+    public void chunkTickets(Blackhole blackhole) {
+        for (TicketDataset.Owner<BlockPos> owner : dataset.blockOwners) {
+            blackhole.consume(blockForcedChunks.getChunkTickets(owner.chunks().getLong(0)));
+        }
+    }
+
+    /**
+     * Trackers filled with the dataset again before every invocation, for benchmarks that empty them.
+     */
+    @State(Scope.Thread)
+    public static class FilledTrackers {
+        private TicketTracker<BlockPos> blockForcedChunks;
+        private TicketTracker<UUID> entityForcedChunks;
+
+        @Setup(Level.Invocation)
+        public void fill(TicketTrackerBenchmark benchmark) {
+            blockForcedChunks = new BlockTicketTracker();
+            entityForcedChunks = new TicketTracker<>();
+            benchmark.dataset.fill(blockForcedChunks, entityForcedChunks);
+        }
+    }
+}
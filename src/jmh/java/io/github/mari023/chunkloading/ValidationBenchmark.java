@@ -0,0 +1,61 @@
+package io.github.mari023.chunkloading;
+
+import net.minecraft.core.BlockPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of building the per mod ticket maps handed to the {@link ForgeChunkManager.LoadingValidationCallback}s when a level is loaded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ValidationBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int tickets;
+    @Param({"32"})
+    public int mods;
+    @Param({"1", "32"})
+    public int modsWithCallbacks;
+
+    private TicketTracker<BlockPos> blockForcedChunks;
+    private TicketTracker<UUID> entityForcedChunks;
+    private Set<String> callbackModIds;
+
+    @Setup(Level.Trial)
+    public void createDataset() {
+        blockForcedChunks = new BlockTicketTracker();
+        entityForcedChunks = new TicketTracker<>();
+        TicketDataset dataset = new TicketDataset(tickets, mods);
+        dataset.fill(blockForcedChunks, entityForcedChunks);
+        callbackModIds = new HashSet<>(dataset.modIds.subList(0, Math.min(mods, modsWithCallbacks)));
+    }
+
+    @Benchmark
+    public Object gatherBlockTickets() {
+        return ForgeChunkManager.gatherTicketsByModId(blockForcedChunks, callbackModIds);
+    }
+
+    @Benchmark
+    public Object gatherEntityTickets() {
+        return ForgeChunkManager.gatherTicketsByModId(entityForcedChunks, callbackModIds);
+    }
+}
@@ -1,10 +1,23 @@
 package io.github.mari023.chunkloading;
 
+import it.unimi.dsi.fastutil.longs.LongCollection;
 import net.minecraft.server.level.TicketType;
 import net.minecraft.world.level.ChunkPos;
 
+/**
+ * Region tickets added through this interface are reference counted per chunk and ticket type, only the first ticket's level and object are used and only
+ * the first add and last remove of a chunk and type reach the distance manager.
+ */
 public interface AdditionalDistanceManager {
     <T> void addRegionTicket(TicketType<T> ticketType, ChunkPos chunkPos, int i, T object, boolean forceTicks);
     <T> void removeRegionTicket(TicketType<T> ticketType, ChunkPos chunkPos, int i, T object, boolean forceTicks);
+    <T> void addRegionTicket(TicketType<T> ticketType, long chunk, int i, T object, boolean forceTicks);
+    <T> void removeRegionTicket(TicketType<T> ticketType, long chunk, int i, T object, boolean forceTicks);
+    <T> void addRegionTickets(TicketType<T> ticketType, LongCollection chunks, int i, T object, boolean forceTicks);
+    <T> void removeRegionTickets(TicketType<T> ticketType, LongCollection chunks, int i, T object, boolean forceTicks);
+    TicketReinstatement getTicketReinstatement();
+    boolean hasForcedTicks();
     boolean shouldForceTicks(long chunkPos);
+    boolean isEntityTickingWithoutForgeTickets(long chunkPos);
+    int getForcedTickingChunkCount();
 }
@@ -3,4 +3,11 @@ package io.github.mari023.chunkloading;
 public interface AdditionalForcedChunksSavedData {
     TicketTracker<net.minecraft.core.BlockPos> getBlockForcedChunks();
     TicketTracker<java.util.UUID> getEntityForcedChunks();
+    @javax.annotation.Nullable
+    ForcedChunksJournal getJournal();
+    ChunkLeases getLeases();
+    TicketChangeRecorder getChangeRecorder();
+    LevelForcedChunks getLevelForcedChunks();
+    void markSaveFailed();
+    boolean takeSaveFailed();
 }
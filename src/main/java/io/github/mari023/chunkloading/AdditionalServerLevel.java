@@ -0,0 +1,12 @@
+package io.github.mari023.chunkloading;
+
+public interface AdditionalServerLevel {
+    ForceChunkQueue getForceChunkQueue();
+    ChunkLoadingStats getChunkLoadingStats();
+    TickProfiler getTickProfiler();
+    TickThrottle getTickThrottle();
+    SnapshotPublisher getSnapshotPublisher();
+    @javax.annotation.Nullable
+    net.minecraft.world.level.ForcedChunksSavedData getForcedChunksData();
+    void setForcedChunksData(net.minecraft.world.level.ForcedChunksSavedData data);
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+package io.github.mari023.chunkloading;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link TicketTracker} specialized for block owners. Owners are keyed by their packed {@link BlockPos#asLong()} position in a primitive map per mod, with mod ids
+ * interned to small integers, so looking up an owner doesn't allocate and no {@link TicketOwner} or {@link BlockPos} is kept per owner.
+ */
+public class BlockTicketTracker extends TicketTracker<BlockPos> {
+    private final Object2IntMap<String> modIndices = new Object2IntOpenHashMap<>();
+    private final List<Long2ObjectMap<BlockOwnerTickets>> modOwners = new ArrayList<>();
+
+    public BlockTicketTracker() {
+        this(false);
+    }
+
+    /**
+     * @see TicketTracker#TicketTracker(boolean)
+     */
+    public BlockTicketTracker(boolean insertionOrdered) {
+        super(insertionOrdered);
+        modIndices.defaultReturnValue(-1);
+    }
+
+    @Nullable
+    @Override
+    OwnerTickets<BlockPos> getOwnerTickets(String modId, BlockPos owner) {
+        int mod = modIndices.getInt(modId);
+        return mod == -1 ? null : modOwners.get(mod).get(owner.asLong());
+    }
+
+    @Nullable
+    @Override
+    OwnerTickets<BlockPos> getOwnerTickets(TicketOwner<?> owner) {
+        return owner.owner() instanceof BlockPos pos ? getOwnerTickets(owner.modId(), pos) : null;
+    }
+
+    @Override
+    OwnerTickets<BlockPos> createOwnerTickets(String modId, BlockPos owner) {
+        int mod = modIndices.getInt(modId);
+        if (mod == -1) {
+            mod = modOwners.size();
+            modIndices.put(modId, mod);
+            modOwners.add(new Long2ObjectOpenHashMap<>());
+        }
+        BlockOwnerTickets ownerTickets = new BlockOwnerTickets(modId, mod, owner.asLong());
+        modOwners.get(mod).put(ownerTickets.pos, ownerTickets);
+        return ownerTickets;
+    }
+
+    @Override
+    void removeOwnerTickets(OwnerTickets<BlockPos> ownerTickets) {
+        BlockOwnerTickets blockOwnerTickets = (BlockOwnerTickets) ownerTickets;
+        modOwners.get(blockOwnerTickets.mod).remove(blockOwnerTickets.pos);
+    }
+
+    @Override
+    Iterator<? extends OwnerTickets<BlockPos>> ownerTicketsIterator() {
+        return modOwners.stream().flatMap(owners -> owners.values().stream()).iterator();
+    }
+
+    @Override
+    Iterator<? extends OwnerTickets<BlockPos>> ownerTicketsIterator(String modId) {
+        int mod = modIndices.getInt(modId);
+        return mod == -1 ? Collections.emptyIterator() : modOwners.get(mod).values().iterator();
+    }
+
+    @Override
+    int getOwnerCount(String modId) {
+        int mod = modIndices.getInt(modId);
+        return mod == -1 ? 0 : modOwners.get(mod).size();
+    }
+
+    @Override
+    public Set<String> getModIds() {
+        //Mods keep their index once they have no owners left
+        Set<String> modIds = new HashSet<>();
+        for (Object2IntMap.Entry<String> entry : modIndices.object2IntEntrySet()) {
+            if (!modOwners.get(entry.getIntValue()).isEmpty())
+                modIds.add(entry.getKey());
+        }
+        return modIds;
+    }
+
+    private static class BlockOwnerTickets extends OwnerTickets<BlockPos> {
+        private final String modId;
+        private final int mod;
+        private final long pos;
+
+        private BlockOwnerTickets(String modId, int mod, long pos) {
+            this.modId = modId;
+            this.mod = mod;
+            this.pos = pos;
+        }
+
+        @Override
+        String modId() {
+            return modId;
+        }
+
+        @Override
+        BlockPos owner() {
+            return BlockPos.of(pos);
+        }
+    }
+}
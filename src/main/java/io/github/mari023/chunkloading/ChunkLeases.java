@@ -0,0 +1,257 @@
+package io.github.mari023.chunkloading;
+
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Leases on forge tickets, which unforce their chunk once they run out unless they are renewed. Expiry is tracked by game time in a {@link TimingWheel}, so
+ * finding the expired leases each tick doesn't depend on how many there are, and the leases are saved with the forced chunks so they keep running after a
+ * restart. Renewing a lease only moves its expiry, it is rescheduled lazily once its old deadline is reached. With a {@link ForcedChunksJournal} the lease
+ * changes are appended to it instead of saving everything again.
+ */
+public final class ChunkLeases {
+    static final String LEASES_KEY = "ForgeLeases";
+
+    private final Map<LeaseKey, Lease> leases = new HashMap<>();
+    private final TicketTracker<BlockPos> blockForcedChunks;
+    private final TicketTracker<UUID> entityForcedChunks;
+    @Nullable
+    private final ForcedChunksJournal journal;
+    private final Runnable onChange;
+    @Nullable
+    private TimingWheel<Lease> wheel;
+
+    /**
+     * Creates the leases of the tickets of the given trackers. Leases end when their ticket is removed in any way.
+     *
+     * @param journal  Journal recording every lease change, or {@code null} to save everything again instead.
+     * @param onChange Called whenever a lease is added, renewed or ended without a journal, to mark the leases for saving.
+     */
+    public ChunkLeases(TicketTracker<BlockPos> blockForcedChunks, TicketTracker<UUID> entityForcedChunks, @Nullable ForcedChunksJournal journal,
+                       Runnable onChange) {
+        this.blockForcedChunks = blockForcedChunks;
+        this.entityForcedChunks = entityForcedChunks;
+        this.journal = journal;
+        this.onChange = onChange;
+        blockForcedChunks.addListener((owner, chunk, ticking, added) -> {
+            if (!added)
+                release(owner.modId(), owner.owner(), chunk, ticking);
+        });
+        entityForcedChunks.addListener((owner, chunk, ticking, added) -> {
+            if (!added)
+                release(owner.modId(), owner.owner(), chunk, ticking);
+        });
+    }
+
+    /**
+     * Gets the number of leased tickets.
+     */
+    public int size() {
+        return leases.size();
+    }
+
+    /**
+     * Gets the game time at which the lease on the given ticket runs out, or {@code -1} if the ticket isn't leased.
+     */
+    public long getExpiry(String modId, Object owner, long chunk, boolean ticking) {
+        Lease lease = leases.get(new LeaseKey(modId, owner, chunk, ticking));
+        return lease == null ? -1 : lease.expiry;
+    }
+
+    /**
+     * Leases the given ticket until the given game time, or renews its lease.
+     *
+     * @param owner A {@link BlockPos} or {@link UUID}.
+     * @param now   The current game time.
+     */
+    void lease(String modId, Object owner, long chunk, boolean ticking, long now, long expiry) {
+        TimingWheel<Lease> wheel = getWheel(now);
+        Lease lease = leases.computeIfAbsent(new LeaseKey(modId, owner, chunk, ticking), Lease::new);
+        lease.expiry = expiry;
+        if (expiry < lease.scheduled) {
+            lease.scheduled = expiry;
+            wheel.schedule(lease, expiry);
+        }
+        changed(lease, expiry);
+    }
+
+    /**
+     * Ends the lease on the given ticket without removing the ticket, making it permanent.
+     *
+     * @return {@code true} if the ticket was leased.
+     */
+    boolean release(String modId, Object owner, long chunk, boolean ticking) {
+        if (leases.isEmpty())
+            return false;
+        Lease lease = leases.remove(new LeaseKey(modId, owner, chunk, ticking));
+        if (lease == null)
+            return false;
+        lease.ended = true;
+        changed(lease, -1);
+        return true;
+    }
+
+    /**
+     * Ends the leases that ran out by the given game time and passes them to the consumer, which should remove their tickets.
+     */
+    void tick(long now, Consumer<Lease> expired) {
+        if (wheel == null && leases.isEmpty())
+            return;
+        TimingWheel<Lease> wheel = getWheel(now);
+        wheel.advance(now, (lease, deadline) -> {
+            //Leases that ended or were moved to an earlier deadline leave their old entries behind
+            if (lease.ended || deadline != lease.scheduled)
+                return;
+            if (lease.expiry > deadline) {
+                lease.scheduled = lease.expiry;
+                wheel.schedule(lease, lease.expiry);
+                return;
+            }
+            leases.remove(lease.key);
+            lease.ended = true;
+            changed(lease, -1);
+            expired.accept(lease);
+        });
+    }
+
+    /**
+     * @param expiry The new expiry of the lease, or {@code -1} if it ended.
+     */
+    private void changed(Lease lease, long expiry) {
+        if (journal != null)
+            journal.recordLease(lease.modId(), lease.owner(), lease.chunk(), lease.ticking(), expiry);
+        else
+            onChange.run();
+    }
+
+    private TimingWheel<Lease> getWheel(long now) {
+        if (wheel == null) {
+            wheel = new TimingWheel<>(now);
+            //Leases read from the save data are scheduled once the game time is known
+            for (Lease lease : leases.values()) {
+                lease.scheduled = lease.expiry;
+                wheel.schedule(lease, lease.expiry);
+            }
+        }
+        return wheel;
+    }
+
+    /**
+     * Writes the leases into a list, which can be saved on any thread.
+     */
+    ListTag save() {
+        ListTag list = new ListTag();
+        for (Lease lease : leases.values()) {
+            CompoundTag tag = new CompoundTag();
+            tag.putString("Mod", lease.modId());
+            if (lease.owner() instanceof BlockPos pos) {
+                tag.putLong("Block", pos.asLong());
+            } else {
+                tag.putUUID("Entity", (UUID) lease.owner());
+            }
+            tag.putLong("Chunk", lease.chunk());
+            tag.putBoolean("Ticking", lease.ticking());
+            tag.putLong("Expiry", lease.expiry);
+            list.add(tag);
+        }
+        return list;
+    }
+
+    /**
+     * Reads the leases from the NBT compound, after the tickets were read and before the journal is replayed. Leases of tickets that no longer exist are
+     * dropped.
+     *
+     * @apiNote Internal
+     */
+    public void load(CompoundTag nbt) {
+        ListTag list = nbt.getList(LEASES_KEY, Tag.TAG_COMPOUND);
+        for (int i = 0; i < list.size(); i++) {
+            CompoundTag tag = list.getCompound(i);
+            String modId = tag.getString("Mod");
+            if (!FabricLoader.getInstance().isModLoaded(modId))
+                continue;
+            long chunk = tag.getLong("Chunk");
+            boolean ticking = tag.getBoolean("Ticking");
+            Object owner;
+            boolean exists;
+            if (tag.contains("Block", Tag.TAG_LONG)) {
+                BlockPos pos = BlockPos.of(tag.getLong("Block"));
+                owner = pos;
+                exists = holds(blockForcedChunks, modId, pos, chunk, ticking);
+            } else {
+                UUID uuid = tag.getUUID("Entity");
+                owner = uuid;
+                exists = holds(entityForcedChunks, modId, uuid, chunk, ticking);
+            }
+            if (exists)
+                restore(modId, owner, chunk, ticking, tag.getLong("Expiry"));
+        }
+    }
+
+    /**
+     * Leases the given ticket until the given game time while the leases are read, without recording the change.
+     */
+    void restore(String modId, Object owner, long chunk, boolean ticking, long expiry) {
+        Lease lease = leases.computeIfAbsent(new LeaseKey(modId, owner, chunk, ticking), Lease::new);
+        lease.expiry = expiry;
+        if (wheel != null && expiry < lease.scheduled) {
+            lease.scheduled = expiry;
+            wheel.schedule(lease, expiry);
+        }
+    }
+
+    private static <T extends Comparable<? super T>> boolean holds(TicketTracker<T> tracker, String modId, T owner, long chunk, boolean ticking) {
+        TicketTracker.OwnerTickets<T> ownerTickets = tracker.getOwnerTickets(modId, owner);
+        LongSet chunks = ownerTickets == null ? null : ownerTickets.getChunks(ticking);
+        return chunks != null && chunks.contains(chunk);
+    }
+
+    private record LeaseKey(String modId, Object owner, long chunk, boolean ticking) {
+    }
+
+    /**
+     * A leased ticket.
+     */
+    static final class Lease {
+        private final LeaseKey key;
+        private long expiry;
+        /**
+         * Deadline of the current entry in the wheel, entries with other deadlines are stale.
+         */
+        private long scheduled = Long.MAX_VALUE;
+        private boolean ended;
+
+        private Lease(LeaseKey key) {
+            this.key = key;
+        }
+
+        String modId() {
+            return key.modId();
+        }
+
+        /**
+         * Gets the {@link BlockPos} or {@link UUID} owning the ticket.
+         */
+        Object owner() {
+            return key.owner();
+        }
+
+        long chunk() {
+            return key.chunk();
+        }
+
+        boolean ticking() {
+            return key.ticking();
+        }
+    }
+}
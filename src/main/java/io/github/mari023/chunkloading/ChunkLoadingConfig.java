@@ -0,0 +1,202 @@
+package io.github.mari023.chunkloading;
+
+import net.fabricmc.loader.api.FabricLoader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server side settings, read once from {@code config/fabricated-forge-chunkloading-api.properties}. Missing keys are written back with their defaults, which
+ * keep the behaviour of the Forge api.
+ */
+public final class ChunkLoadingConfig {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final Properties PROPERTIES = load(FabricLoader.getInstance().getConfigDir().resolve("fabricated-forge-chunkloading-api.properties"));
+
+    /**
+     * Maximum number of forced chunks to reinstate per tick after the server started, {@code 0} to not limit it.
+     */
+    public static final int REINSTATE_CHUNKS_PER_TICK = getInt("reinstate.chunksPerTick", 0);
+    /**
+     * Maximum number of milliseconds to spend reinstating forced chunks per tick after the server started, {@code 0} to not limit it.
+     */
+    public static final int REINSTATE_MILLIS_PER_TICK = getInt("reinstate.millisPerTick", 0);
+
+    /**
+     * Whether to encode and write the forced chunks of a level on a background thread when the level is saved.
+     */
+    public static final boolean ASYNC_SAVE = getBoolean("save.async", true);
+    /**
+     * Whether to append ticket changes to a journal next to the forced chunks of a level instead of saving all of them whenever one changed.
+     */
+    public static final boolean JOURNAL = getBoolean("save.journal", false);
+    /**
+     * Number of journal entries after which the forced chunks of a level are saved in full again and the journal is emptied.
+     */
+    public static final int JOURNAL_COMPACT_AFTER = getInt("save.journal.compactAfter", 4096);
+    /**
+     * Number of milliseconds a forced chunk validation callback may take before a warning is logged, {@code 0} to never warn.
+     */
+    public static final int VALIDATION_MILLIS_LIMIT = getInt("validation.millisLimit", 0);
+    /**
+     * Maximum number of queued force chunk requests to process per tick and level, {@code 0} to not limit it.
+     */
+    public static final int QUEUE_MAX_PER_TICK = getInt("queue.maxPerTick", 16384);
+    /**
+     * Every how many ticks the tick profiler measures the forced chunks while it is running, {@code 1} to measure every tick.
+     */
+    public static final int PROFILER_SAMPLE_INTERVAL = Math.max(1, getInt("profiler.sampleInterval", 4));
+    /**
+     * Maximum number of non-ticking chunks a single block or entity may force, {@code 0} to not limit it.
+     */
+    public static final int QUOTA_OWNER_MAX_CHUNKS = getInt("quota.owner.maxChunks", 0);
+    /**
+     * Maximum number of fully ticking chunks a single block or entity may force, {@code 0} to not limit it.
+     */
+    public static final int QUOTA_OWNER_MAX_TICKING_CHUNKS = getInt("quota.owner.maxTickingChunks", 0);
+    /**
+     * Maximum number of non-ticking tickets a mod may hold per level, {@code 0} to not limit it. Can be overridden per mod with
+     * {@code quota.mod.<modid>.maxChunks}.
+     */
+    public static final int QUOTA_MOD_MAX_CHUNKS = getInt("quota.mod.maxChunks", 0);
+    /**
+     * Maximum number of fully ticking tickets a mod may hold per level, {@code 0} to not limit it. Can be overridden per mod with
+     * {@code quota.mod.<modid>.maxTickingChunks}.
+     */
+    public static final int QUOTA_MOD_MAX_TICKING_CHUNKS = getInt("quota.mod.maxTickingChunks", 0);
+    /**
+     * Maximum number of chunks forge tickets may force per level, {@code 0} to not limit it.
+     */
+    public static final int QUOTA_LEVEL_MAX_CHUNKS = getInt("quota.level.maxChunks", 0);
+    /**
+     * Maximum number of chunks receiving full ticks without a nearby player per level, {@code 0} to not limit it.
+     */
+    public static final int QUOTA_LEVEL_MAX_TICKING_CHUNKS = getInt("quota.level.maxTickingChunks", 0);
+    /**
+     * Whether an owner forcing a chunk over its quota unforces its oldest chunk instead of being rejected. Mod and level quotas always reject.
+     */
+    public static final boolean QUOTA_EVICT_OLDEST = getBoolean("quota.evictOldest", false);
+    /**
+     * Average milliseconds per tick above which chunks only kept ticking by forge tickets are ticked less often, {@code 0} to never throttle them. Can be
+     * overridden per mod with {@code throttle.mod.<modid>} set to {@code high}, {@code normal} or {@code low}, see {@link TickPriority}.
+     */
+    public static final int THROTTLE_MSPT = getInt("throttle.msptThreshold", 0);
+    /**
+     * Maximum number of ticks between the ticks of a throttled chunk of {@link TickPriority#NORMAL} priority.
+     */
+    public static final int THROTTLE_MAX_INTERVAL = Math.max(1, getInt("throttle.maxInterval", 8));
+    private static final Map<String, int[]> MOD_QUOTAS = new ConcurrentHashMap<>();
+    private static final Map<String, TickPriority> MOD_TICK_PRIORITIES = new ConcurrentHashMap<>();
+
+    static {
+        save(FabricLoader.getInstance().getConfigDir().resolve("fabricated-forge-chunkloading-api.properties"));
+    }
+
+    private ChunkLoadingConfig() {
+    }
+
+    /**
+     * Gets the maximum number of non-ticking or fully ticking tickets the given mod may hold per level, {@code 0} if it is not limited.
+     */
+    public static int getModQuota(String modId, boolean ticking) {
+        int[] quotas = MOD_QUOTAS.computeIfAbsent(modId, id -> new int[]{
+                getOptionalInt("quota.mod." + id + ".maxChunks", QUOTA_MOD_MAX_CHUNKS),
+                getOptionalInt("quota.mod." + id + ".maxTickingChunks", QUOTA_MOD_MAX_TICKING_CHUNKS)
+        });
+        return quotas[ticking ? 1 : 0];
+    }
+
+    /**
+     * Gets the priority of the forced chunks of the given mod when ticks are throttled, {@link TickPriority#NORMAL} unless configured otherwise.
+     */
+    public static TickPriority getModTickPriority(String modId) {
+        return MOD_TICK_PRIORITIES.computeIfAbsent(modId, id -> {
+            String key = "throttle.mod." + id;
+            String value = PROPERTIES.getProperty(key);
+            if (value != null) {
+                try {
+                    return TickPriority.valueOf(value.trim().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    LOGGER.warn("Invalid value {} for chunk loading config {}, using {}", value, key, TickPriority.NORMAL);
+                }
+            }
+            return TickPriority.NORMAL;
+        });
+    }
+
+    /**
+     * Checks if reinstating forced chunks is spread over multiple ticks instead of done all at once while the levels are prepared.
+     */
+    public static boolean isReinstatementStaggered() {
+        return REINSTATE_CHUNKS_PER_TICK > 0 || REINSTATE_MILLIS_PER_TICK > 0;
+    }
+
+    private static Properties load(Path path) {
+        Properties properties = new Properties();
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                LOGGER.error("Failed to read chunk loading config {}, using defaults", path, e);
+            }
+        }
+        return properties;
+    }
+
+    private static void save(Path path) {
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            PROPERTIES.store(writer, "Fabricated Forge Chunkloading API");
+        } catch (IOException e) {
+            LOGGER.error("Failed to write chunk loading config {}", path, e);
+        }
+    }
+
+    private static boolean getBoolean(String key, boolean defaultValue) {
+        String value = PROPERTIES.getProperty(key);
+        if (value != null) {
+            value = value.trim();
+            if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false"))
+                return Boolean.parseBoolean(value);
+            LOGGER.warn("Invalid value {} for chunk loading config {}, using {}", value, key, defaultValue);
+        }
+        PROPERTIES.setProperty(key, Boolean.toString(defaultValue));
+        return defaultValue;
+    }
+
+    /**
+     * Reads an optional key, which isn't written back if it is missing.
+     */
+    private static int getOptionalInt(String key, int defaultValue) {
+        String value = PROPERTIES.getProperty(key);
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Invalid value {} for chunk loading config {}, using {}", value, key, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
+    private static int getInt(String key, int defaultValue) {
+        String value = PROPERTIES.getProperty(key);
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Invalid value {} for chunk loading config {}, using {}", value, key, defaultValue);
+            }
+        }
+        PROPERTIES.setProperty(key, Integer.toString(defaultValue));
+        return defaultValue;
+    }
+}
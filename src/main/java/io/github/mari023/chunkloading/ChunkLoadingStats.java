@@ -0,0 +1,163 @@
+package io.github.mari023.chunkloading;
+
+import net.minecraft.world.level.ForcedChunksSavedData;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runtime statistics of the chunk loading api. Each level counts the tickets added and removed per mod, while the latencies of the api's entry points are
+ * shared by all levels. The current tickets are only counted when the statistics are requested, so keeping them costs nothing.
+ *
+ * @see ForgeChunkManager#getStats(net.minecraft.server.level.ServerLevel)
+ */
+public class ChunkLoadingStats {
+    private static final Map<Operation, LatencyHistogram> LATENCIES = new EnumMap<>(Operation.class);
+
+    static {
+        for (Operation operation : Operation.values()) {
+            LATENCIES.put(operation, new LatencyHistogram());
+        }
+    }
+
+    private final Map<String, ModCounters> modCounters = new HashMap<>();
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * Gets the latency histogram of the given entry point.
+     */
+    public static LatencyHistogram getLatency(Operation operation) {
+        return LATENCIES.get(operation);
+    }
+
+    /**
+     * Counts tickets added or removed by the given mod, on the server thread.
+     */
+    void recordChanges(String modId, boolean added, int count) {
+        ModCounters counters = modCounters.computeIfAbsent(modId, id -> new ModCounters());
+        if (added)
+            counters.added += count;
+        else
+            counters.removed += count;
+    }
+
+    /**
+     * Counts tickets of the given mod that were rejected because of a quota, on the server thread.
+     */
+    void recordRejections(String modId, int count) {
+        modCounters.computeIfAbsent(modId, id -> new ModCounters()).rejected += count;
+    }
+
+    /**
+     * Counts the current tickets of each mod in the given save data, along with how many it added and removed.
+     *
+     * @param saveData The forced chunks of the level these stats belong to, or {@code null} if it has none.
+     * @return The stats of each mod, with the mods forcing the most chunks first.
+     */
+    public List<ModStats> getModStats(@Nullable ForcedChunksSavedData saveData) {
+        Map<String, ModStatsBuilder> builders = new HashMap<>();
+        if (saveData != null) {
+            count(ForgeChunkManager.getBlockForcedChunks(saveData), builders);
+            count(ForgeChunkManager.getEntityForcedChunks(saveData), builders);
+        }
+        for (String modId : modCounters.keySet()) {
+            builders.computeIfAbsent(modId, id -> new ModStatsBuilder());
+        }
+        double minutes = Math.max(1, (System.nanoTime() - startNanos) / 60_000_000_000.0);
+        List<ModStats> stats = new ArrayList<>(builders.size());
+        for (Map.Entry<String, ModStatsBuilder> entry : builders.entrySet()) {
+            ModStatsBuilder builder = entry.getValue();
+            ModCounters counters = modCounters.get(entry.getKey());
+            long added = counters == null ? 0 : counters.added;
+            long removed = counters == null ? 0 : counters.removed;
+            long rejected = counters == null ? 0 : counters.rejected;
+            stats.add(new ModStats(entry.getKey(), builder.owners, builder.tickets, builder.tickingTickets, added, removed, rejected, added / minutes,
+                    removed / minutes));
+        }
+        stats.sort(Comparator.comparingInt((ModStats modStats) -> modStats.tickets() + modStats.tickingTickets()).reversed());
+        return stats;
+    }
+
+    private static <T extends Comparable<? super T>> void count(TicketTracker<T> tracker, Map<String, ModStatsBuilder> builders) {
+        for (String modId : tracker.getModIds()) {
+            ModStatsBuilder builder = builders.computeIfAbsent(modId, id -> new ModStatsBuilder());
+            builder.owners += tracker.getOwnerCount(modId);
+            builder.tickets += tracker.getModTicketCount(modId, false);
+            builder.tickingTickets += tracker.getModTicketCount(modId, true);
+        }
+    }
+
+    /**
+     * The entry points whose latency is measured.
+     */
+    public enum Operation {
+        /**
+         * Forcing or unforcing chunks through any of the {@code forceChunk} and {@code forceChunks} methods.
+         */
+        FORCE_CHUNK,
+        /**
+         * Validating and reinstating the forced chunks of a level when it is loaded.
+         */
+        REINSTATE,
+        /**
+         * Reading the forge forced chunks when the saved data is loaded.
+         */
+        LOAD,
+        /**
+         * The part of saving the forced chunks that runs on the server thread.
+         */
+        SAVE,
+        /**
+         * Encoding and writing the forced chunks when saving, in the background if saves are asynchronous.
+         */
+        SAVE_IO
+    }
+
+    /**
+     * Stats of a single level.
+     *
+     * @param forcedChunks          Number of chunks forced by vanilla, for example with {@code /forceload}.
+     * @param blockForcedChunks     Number of distinct chunks forced by blocks.
+     * @param entityForcedChunks    Number of distinct chunks forced by entities.
+     * @param forcedTickingChunks   Number of distinct chunks receiving full ticks without a player nearby.
+     * @param pendingReinstatements Number of persistent tickets still waiting to be reinstated.
+     * @param throttleInterval      Every how many ticks throttled forced chunks tick, {@code 1} if they are not throttled.
+     * @param mods                  The stats of each mod, with the mods forcing the most chunks first.
+     */
+    public record LevelStats(int forcedChunks, int blockForcedChunks, int entityForcedChunks, int forcedTickingChunks, int pendingReinstatements,
+                             int throttleInterval, List<ModStats> mods) {
+    }
+
+    /**
+     * Stats of a single mod in a level.
+     *
+     * @param owners           Number of blocks and entities forcing chunks.
+     * @param tickets          Number of non-ticking tickets, an owner forcing a chunk is one ticket.
+     * @param tickingTickets   Number of fully ticking tickets.
+     * @param added            Tickets added since the server started.
+     * @param removed          Tickets removed since the server started.
+     * @param rejected         Tickets rejected because of a quota since the server started.
+     * @param addedPerMinute   Average tickets added per minute since the server started.
+     * @param removedPerMinute Average tickets removed per minute since the server started.
+     */
+    public record ModStats(String modId, int owners, int tickets, int tickingTickets, long added, long removed, long rejected, double addedPerMinute,
+                           double removedPerMinute) {
+    }
+
+    private static class ModCounters {
+        private long added;
+        private long removed;
+        private long rejected;
+    }
+
+    private static class ModStatsBuilder {
+        private int owners;
+        private int tickets;
+        private int tickingTickets;
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.mari023.chunkloading;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongCollection;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ForcedChunksSavedData;
+
+import javax.annotation.Nullable;
+
+/**
+ * Enforces the configured quotas on forced chunks when tickets are added. All checks only read counters the trackers and the distance manager already keep,
+ * so they don't depend on how many chunks are forced.
+ */
+final class ChunkQuotas {
+    private ChunkQuotas() {
+    }
+
+    /**
+     * Checks if the owner may force the chunk.
+     *
+     * @return The quota that would be exceeded, or {@code null} if forcing the chunk is allowed or the owner already forces it.
+     */
+    @Nullable
+    static <T extends Comparable<? super T>> ForceChunkResult check(ServerLevel level, ForcedChunksSavedData saveData, TicketTracker<T> tickets, String modId,
+                                                                   T owner, long chunk, boolean ticking) {
+        TicketTracker.OwnerTickets<T> ownerTickets = tickets.getOwnerTickets(modId, owner);
+        LongSet ownerChunks = ownerTickets == null ? null : ownerTickets.getChunks(ticking);
+        if (ownerChunks != null && ownerChunks.contains(chunk))
+            return null;
+        int ownerLimit = ticking ? ChunkLoadingConfig.QUOTA_OWNER_MAX_TICKING_CHUNKS : ChunkLoadingConfig.QUOTA_OWNER_MAX_CHUNKS;
+        if (ownerLimit > 0 && ownerChunks != null && ownerChunks.size() >= ownerLimit)
+            return ForceChunkResult.OWNER_QUOTA_EXCEEDED;
+        int modLimit = ChunkLoadingConfig.getModQuota(modId, ticking);
+        if (modLimit > 0 && getModTicketCount(saveData, modId, ticking) >= modLimit)
+            return ForceChunkResult.MOD_QUOTA_EXCEEDED;
+        int levelLimit = ticking ? ChunkLoadingConfig.QUOTA_LEVEL_MAX_TICKING_CHUNKS : ChunkLoadingConfig.QUOTA_LEVEL_MAX_CHUNKS;
+        if (levelLimit > 0 && !isLevelForced(level, saveData, chunk, ticking) && getLevelChunkCount(level, saveData, ticking) >= levelLimit)
+            return ForceChunkResult.LEVEL_QUOTA_EXCEEDED;
+        return null;
+    }
+
+    /**
+     * Filters the chunks the owner may force, in order, until a quota is reached. Chunks the owner already forces are left out, the distinct chunks after the
+     * quota was reached are rejected.
+     */
+    static <T extends Comparable<? super T>> Limited limit(ServerLevel level, ForcedChunksSavedData saveData, TicketTracker<T> tickets, String modId, T owner,
+                                                            LongCollection chunks, boolean ticking) {
+        TicketTracker.OwnerTickets<T> ownerTickets = tickets.getOwnerTickets(modId, owner);
+        LongSet ownerChunks = ownerTickets == null ? null : ownerTickets.getChunks(ticking);
+        int ownerLimit = ticking ? ChunkLoadingConfig.QUOTA_OWNER_MAX_TICKING_CHUNKS : ChunkLoadingConfig.QUOTA_OWNER_MAX_CHUNKS;
+        int modLimit = ChunkLoadingConfig.getModQuota(modId, ticking);
+        int levelLimit = ticking ? ChunkLoadingConfig.QUOTA_LEVEL_MAX_TICKING_CHUNKS : ChunkLoadingConfig.QUOTA_LEVEL_MAX_CHUNKS;
+        //Remaining capacity of each quota, Integer.MAX_VALUE if it is not limited
+        int ownerCapacity = ownerLimit > 0 ? ownerLimit - (ownerChunks == null ? 0 : ownerChunks.size()) : Integer.MAX_VALUE;
+        int modCapacity = modLimit > 0 ? modLimit - getModTicketCount(saveData, modId, ticking) : Integer.MAX_VALUE;
+        int levelCapacity = levelLimit > 0 ? levelLimit - getLevelChunkCount(level, saveData, ticking) : Integer.MAX_VALUE;
+        LongList allowed = new LongArrayList(Math.min(chunks.size(), Math.max(0, Math.min(ownerCapacity, modCapacity))));
+        LongSet seen = new LongOpenHashSet(chunks.size());
+        ForceChunkResult rejection = null;
+        int rejected = 0;
+        for (long chunk : chunks) {
+            if (ownerChunks != null && ownerChunks.contains(chunk) || !seen.add(chunk))
+                continue;
+            if (rejection == null) {
+                boolean newLevelChunk = levelLimit > 0 && !isLevelForced(level, saveData, chunk, ticking);
+                if (ownerCapacity <= 0)
+                    rejection = ForceChunkResult.OWNER_QUOTA_EXCEEDED;
+                else if (modCapacity <= 0)
+                    rejection = ForceChunkResult.MOD_QUOTA_EXCEEDED;
+                else if (newLevelChunk && levelCapacity <= 0)
+                    rejection = ForceChunkResult.LEVEL_QUOTA_EXCEEDED;
+                if (rejection == null) {
+                    allowed.add(chunk);
+                    ownerCapacity--;
+                    modCapacity--;
+                    if (newLevelChunk)
+                        levelCapacity--;
+                    continue;
+                }
+            }
+            rejected++;
+        }
+        return new Limited(allowed, rejection, rejected);
+    }
+
+    private static int getModTicketCount(ForcedChunksSavedData saveData, String modId, boolean ticking) {
+        return ForgeChunkManager.getBlockForcedChunks(saveData).getModTicketCount(modId, ticking) +
+               ForgeChunkManager.getEntityForcedChunks(saveData).getModTicketCount(modId, ticking);
+    }
+
+    /**
+     * Gets the number of distinct chunks of the level forced by forge tickets.
+     */
+    private static int getLevelChunkCount(ServerLevel level, ForcedChunksSavedData saveData, boolean ticking) {
+        if (ticking)
+            return ((AdditionalDistanceManager) level.getChunkSource().distanceManager).getForcedTickingChunkCount();
+        return ForgeChunkManager.getLevelForcedChunks(saveData).size();
+    }
+
+    private static boolean isLevelForced(ServerLevel level, ForcedChunksSavedData saveData, long chunk, boolean ticking) {
+        if (ticking)
+            return ((AdditionalDistanceManager) level.getChunkSource().distanceManager).shouldForceTicks(chunk);
+        return ForgeChunkManager.getLevelForcedChunks(saveData).contains(chunk);
+    }
+
+    /**
+     * The chunks an owner may force out of a batch.
+     *
+     * @param rejection The quota that stopped the batch, or {@code null} if every chunk is allowed.
+     * @param rejected  The number of distinct chunks that were rejected.
+     */
+    record Limited(LongList allowed, @Nullable ForceChunkResult rejection, int rejected) {
+    }
+}
@@ -0,0 +1,202 @@
+package io.github.mari023.chunkloading;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.world.level.ChunkPos;
+
+import javax.annotation.Nullable;
+import java.util.function.LongConsumer;
+
+/**
+ * Spatial index of a set of chunks, as a bitset of 32x32 chunks per region that has any of them. Range queries only look at the regions that have chunks and
+ * overlap the range, and jump from set bit to set bit within them, so their cost follows the number of chunks found rather than the size of the range or of
+ * the set.
+ */
+final class ChunkRegionIndex {
+    private static final int REGION_BITS = 5;
+    private static final int REGION_SIZE = 1 << REGION_BITS;
+    private static final int REGION_MASK = REGION_SIZE - 1;
+
+    /**
+     * Bits of each region, row {@code z} of the region being the lower or upper half of word {@code z / 2}.
+     */
+    private final Long2ObjectMap<long[]> regions = new Long2ObjectOpenHashMap<>();
+
+    void add(long chunk) {
+        int x = ChunkPos.getX(chunk);
+        int z = ChunkPos.getZ(chunk);
+        long[] bits = regions.get(regionKey(x, z));
+        if (bits == null) {
+            bits = new long[REGION_SIZE * REGION_SIZE / Long.SIZE];
+            regions.put(regionKey(x, z), bits);
+        }
+        int index = bitIndex(x, z);
+        bits[index >> 6] |= 1L << index;
+    }
+
+    void remove(long chunk) {
+        int x = ChunkPos.getX(chunk);
+        int z = ChunkPos.getZ(chunk);
+        long region = regionKey(x, z);
+        long[] bits = regions.get(region);
+        if (bits == null)
+            return;
+        int index = bitIndex(x, z);
+        bits[index >> 6] &= ~(1L << index);
+        for (long word : bits) {
+            if (word != 0)
+                return;
+        }
+        regions.remove(region);
+    }
+
+    /**
+     * Passes every chunk in the given rectangle, bounds inclusive, to the consumer.
+     */
+    void forEachInRectangle(int minX, int minZ, int maxX, int maxZ, LongConsumer consumer) {
+        if (minX > maxX || minZ > maxZ || regions.isEmpty())
+            return;
+        int minRegionX = minX >> REGION_BITS;
+        int minRegionZ = minZ >> REGION_BITS;
+        int maxRegionX = maxX >> REGION_BITS;
+        int maxRegionZ = maxZ >> REGION_BITS;
+        long regionCount = (long) (maxRegionX - minRegionX + 1) * (maxRegionZ - minRegionZ + 1);
+        if (regionCount > regions.size()) {
+            //Fewer regions have chunks than the rectangle covers
+            for (Long2ObjectMap.Entry<long[]> entry : regions.long2ObjectEntrySet()) {
+                int regionX = ChunkPos.getX(entry.getLongKey());
+                int regionZ = ChunkPos.getZ(entry.getLongKey());
+                if (regionX >= minRegionX && regionX <= maxRegionX && regionZ >= minRegionZ && regionZ <= maxRegionZ)
+                    forEachInRegion(regionX, regionZ, entry.getValue(), minX, minZ, maxX, maxZ, consumer);
+            }
+        } else {
+            for (int regionX = minRegionX; regionX <= maxRegionX; regionX++) {
+                for (int regionZ = minRegionZ; regionZ <= maxRegionZ; regionZ++) {
+                    long[] bits = regions.get(ChunkPos.asLong(regionX, regionZ));
+                    if (bits != null)
+                        forEachInRegion(regionX, regionZ, bits, minX, minZ, maxX, maxZ, consumer);
+                }
+            }
+        }
+    }
+
+    private static void forEachInRegion(int regionX, int regionZ, long[] bits, int minX, int minZ, int maxX, int maxZ, LongConsumer consumer) {
+        int originX = regionX << REGION_BITS;
+        int originZ = regionZ << REGION_BITS;
+        int fromX = Math.max(minX, originX) - originX;
+        int toX = Math.min(maxX, originX + REGION_MASK) - originX;
+        int fromZ = Math.max(minZ, originZ) - originZ;
+        int toZ = Math.min(maxZ, originZ + REGION_MASK) - originZ;
+        if (fromX > toX || fromZ > toZ)
+            return;
+        long rowMask = ((1L << toX - fromX + 1) - 1) << fromX;
+        for (int z = fromZ; z <= toZ; z++) {
+            long row = bits[z >> 1] >>> ((z & 1) << REGION_BITS) & rowMask;
+            while (row != 0) {
+                int x = Long.numberOfTrailingZeros(row);
+                row &= row - 1;
+                consumer.accept(ChunkPos.asLong(originX + x, originZ + z));
+            }
+        }
+    }
+
+    /**
+     * Finds the chunk closest to the given chunk by euclidean distance, searching the regions in rings around it until no closer chunk can be found.
+     *
+     * @param maxDistance Maximum distance on either axis, like {@link ForgeChunkManager#chunksInRadius(int, int, int)}.
+     * @return The closest chunk, or {@code null} if there is none within the distance.
+     */
+    @Nullable
+    ChunkPos nearest(int x, int z, int maxDistance) {
+        if (regions.isEmpty() || maxDistance < 0)
+            return null;
+        Nearest nearest = new Nearest(x, z, maxDistance);
+        int maxRing = (maxDistance >> REGION_BITS) + 1;
+        long ringRegions = (long) (2 * maxRing + 1) * (2 * maxRing + 1);
+        if (ringRegions > regions.size()) {
+            for (Long2ObjectMap.Entry<long[]> entry : regions.long2ObjectEntrySet()) {
+                nearest.search(ChunkPos.getX(entry.getLongKey()), ChunkPos.getZ(entry.getLongKey()), entry.getValue());
+            }
+            return nearest.get();
+        }
+        int centerX = x >> REGION_BITS;
+        int centerZ = z >> REGION_BITS;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if (ring == 0) {
+                search(nearest, centerX, centerZ);
+            } else {
+                for (int dx = -ring; dx <= ring; dx++) {
+                    search(nearest, centerX + dx, centerZ - ring);
+                    search(nearest, centerX + dx, centerZ + ring);
+                }
+                for (int dz = -ring + 1; dz < ring; dz++) {
+                    search(nearest, centerX - ring, centerZ + dz);
+                    search(nearest, centerX + ring, centerZ + dz);
+                }
+            }
+            //Every chunk of the next ring is at least this far away on one axis
+            long bound = (long) REGION_SIZE * ring + 1;
+            if (nearest.found() && nearest.distanceSquared <= bound * bound)
+                break;
+        }
+        return nearest.get();
+    }
+
+    private void search(Nearest nearest, int regionX, int regionZ) {
+        long[] bits = regions.get(ChunkPos.asLong(regionX, regionZ));
+        if (bits != null)
+            nearest.search(regionX, regionZ, bits);
+    }
+
+    private static long regionKey(int x, int z) {
+        return ChunkPos.asLong(x >> REGION_BITS, z >> REGION_BITS);
+    }
+
+    private static int bitIndex(int x, int z) {
+        return (z & REGION_MASK) << REGION_BITS | x & REGION_MASK;
+    }
+
+    private static class Nearest {
+        private final int x;
+        private final int z;
+        private final int minX;
+        private final int minZ;
+        private final int maxX;
+        private final int maxZ;
+        private long distanceSquared = Long.MAX_VALUE;
+        private int nearestX;
+        private int nearestZ;
+
+        private Nearest(int x, int z, int maxDistance) {
+            this.x = x;
+            this.z = z;
+            //Clamped, so a distance like Integer.MAX_VALUE searches everything instead of overflowing
+            this.minX = (int) Math.max(Integer.MIN_VALUE, (long) x - maxDistance);
+            this.minZ = (int) Math.max(Integer.MIN_VALUE, (long) z - maxDistance);
+            this.maxX = (int) Math.min(Integer.MAX_VALUE, (long) x + maxDistance);
+            this.maxZ = (int) Math.min(Integer.MAX_VALUE, (long) z + maxDistance);
+        }
+
+        private void search(int regionX, int regionZ, long[] bits) {
+            forEachInRegion(regionX, regionZ, bits, minX, minZ, maxX, maxZ, chunk -> {
+                long dx = ChunkPos.getX(chunk) - x;
+                long dz = ChunkPos.getZ(chunk) - z;
+                long distance = dx * dx + dz * dz;
+                if (distance < distanceSquared) {
+                    distanceSquared = distance;
+                    nearestX = ChunkPos.getX(chunk);
+                    nearestZ = ChunkPos.getZ(chunk);
+                }
+            });
+        }
+
+        private boolean found() {
+            return distanceSquared != Long.MAX_VALUE;
+        }
+
+        @Nullable
+        private ChunkPos get() {
+            return found() ? new ChunkPos(nearestX, nearestZ) : null;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.mari023.chunkloading;
+
+/**
+ * Thrown through the future of {@link ForgeChunkManager#forceChunkAsync(net.minecraft.server.level.ServerLevel, String, net.minecraft.core.BlockPos, int, int,
+ * boolean)} when the chunk could not be forced.
+ */
+public class ForceChunkException extends RuntimeException {
+    private final ForceChunkResult result;
+    private final int chunkX;
+    private final int chunkZ;
+
+    public ForceChunkException(ForceChunkResult result, int chunkX, int chunkZ) {
+        super("Chunk [" + chunkX + ", " + chunkZ + "] could not be forced: " + result);
+        this.result = result;
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+    }
+
+    /**
+     * Gets the reason the chunk was not forced, either {@link ForceChunkResult#MOD_NOT_LOADED} or one of the quota results.
+     */
+    public ForceChunkResult getResult() {
+        return result;
+    }
+
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkZ() {
+        return chunkZ;
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.mari023.chunkloading;
+
+import net.minecraft.server.level.ServerLevel;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Lock-free queue of requests to force or unforce chunks, which any thread can submit to and the server thread drains once per tick. Requests of a drained
+ * batch for the same owner, chunk and ticket type are coalesced into the last one, as forcing and unforcing only sets whether the chunk is forced and the last
+ * request decides the outcome.
+ */
+public class ForceChunkQueue {
+    private final Queue<Request> requests = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Queues a request, can be called from any thread.
+     *
+     * @return A future that is completed on the server thread once the request was processed.
+     */
+    CompletableFuture<Boolean> submit(String modId, Object owner, long chunk, boolean add, boolean ticking) {
+        Request request = new Request(new RequestKey(modId, owner, chunk, ticking), add, new CompletableFuture<>());
+        requests.add(request);
+        return request.future;
+    }
+
+    /**
+     * Processes up to the given amount of queued requests. Must be called on the server thread.
+     *
+     * @param maxRequests Maximum amount of requests to process, or {@code 0} for no limit.
+     */
+    void drain(ServerLevel level, int maxRequests) {
+        if (requests.isEmpty())
+            return;
+        Map<RequestKey, Request> batch = new LinkedHashMap<>();
+        Request request;
+        for (int i = 0; (maxRequests <= 0 || i < maxRequests) && (request = requests.poll()) != null; i++) {
+            Request superseded = batch.put(request.key, request);
+            if (superseded != null)
+                superseded.future.complete(false);
+        }
+        for (Request queued : batch.values()) {
+            RequestKey key = queued.key;
+            try {
+                queued.future.complete(ForgeChunkManager.forceQueuedChunk(level, key.modId, key.owner, key.chunk, queued.add, key.ticking));
+            } catch (RuntimeException e) {
+                queued.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Gets the approximate number of requests waiting to be processed.
+     */
+    public int size() {
+        return requests.size();
+    }
+
+    private record RequestKey(String modId, Object owner, long chunk, boolean ticking) {
+    }
+
+    private record Request(RequestKey key, boolean add, CompletableFuture<Boolean> future) {
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.mari023.chunkloading;
+
+/**
+ * The outcome of forcing or unforcing a chunk.
+ *
+ * @see ForgeChunkManager#tryForceChunk(net.minecraft.server.level.ServerLevel, String, net.minecraft.core.BlockPos, int, int, boolean, boolean)
+ */
+public enum ForceChunkResult {
+    /**
+     * The chunk was forced or unforced.
+     */
+    CHANGED,
+    /**
+     * The owner already forced the chunk, or didn't force it when unforcing.
+     */
+    UNCHANGED,
+    /**
+     * The mod is not loaded.
+     */
+    MOD_NOT_LOADED,
+    /**
+     * The owner already forces as many chunks as {@link ChunkLoadingConfig#QUOTA_OWNER_MAX_CHUNKS} or {@link ChunkLoadingConfig#QUOTA_OWNER_MAX_TICKING_CHUNKS}
+     * allow.
+     */
+    OWNER_QUOTA_EXCEEDED,
+    /**
+     * The mod already forces as many chunks in the level as its quota allows, see {@link ChunkLoadingConfig#getModQuota(String, boolean)}.
+     */
+    MOD_QUOTA_EXCEEDED,
+    /**
+     * The level already has as many forced chunks as {@link ChunkLoadingConfig#QUOTA_LEVEL_MAX_CHUNKS} or
+     * {@link ChunkLoadingConfig#QUOTA_LEVEL_MAX_TICKING_CHUNKS} allow.
+     */
+    LEVEL_QUOTA_EXCEEDED;
+
+    /**
+     * Checks if the state changed.
+     */
+    public boolean isChanged() {
+        return this == CHANGED;
+    }
+
+    /**
+     * Checks if forcing the chunk was rejected because of a quota.
+     */
+    public boolean isQuotaExceeded() {
+        return this == OWNER_QUOTA_EXCEEDED || this == MOD_QUOTA_EXCEEDED || this == LEVEL_QUOTA_EXCEEDED;
+    }
+}
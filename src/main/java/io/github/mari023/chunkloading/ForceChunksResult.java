@@ -0,0 +1,22 @@
+package io.github.mari023.chunkloading;
+
+import javax.annotation.Nullable;
+
+/**
+ * The outcome of forcing or unforcing many chunks at once.
+ *
+ * @param changed   The number of chunks whose state changed.
+ * @param rejection Why the remaining chunks were not forced, either {@link ForceChunkResult#MOD_NOT_LOADED} or the quota that was reached, or {@code null} if
+ *                  no chunk was rejected.
+ * @param rejected  The number of chunks that were not forced because of the rejection.
+ * @see ForgeChunkManager#tryForceChunks(net.minecraft.server.level.ServerLevel, String, net.minecraft.core.BlockPos, it.unimi.dsi.fastutil.longs.LongCollection,
+ * boolean, boolean)
+ */
+public record ForceChunksResult(int changed, @Nullable ForceChunkResult rejection, int rejected) {
+    /**
+     * Checks if any chunk was rejected.
+     */
+    public boolean isRejected() {
+        return rejection != null;
+    }
+}
@@ -0,0 +1,312 @@
+package io.github.mari023.chunkloading;
+
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of the forge tickets added and removed and the {@link ChunkLeases leases} changed since the forced chunks of a level were last saved in
+ * full, so that saving a few changes doesn't rewrite every ticket. The log is kept next to the saved data as {@code chunks.dat.journal} and replayed on top of it when it is loaded.
+ * <p>
+ * Every full save starts a new generation, which is stored in both the saved data and the log header so a log of an older generation is never replayed. Each
+ * entry is stored as its length, the entry and a CRC32 of it, so a log cut off while it was written is replayed up to its last complete entry.
+ */
+public final class ForcedChunksJournal {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final int MAGIC = 0x46434A4C;
+    private static final String GENERATION_KEY = "ForgeJournalGeneration";
+    private static final int ADDED = 1;
+    private static final int TICKING = 2;
+    private static final int ENTITY = 4;
+    /**
+     * The entry is a lease change, a lease ending if it isn't {@link #ADDED}.
+     */
+    private static final int LEASE = 8;
+    private static final ThreadLocal<File> LOADING_FILE = new ThreadLocal<>();
+
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private final DataOutputStream pendingOutput = new DataOutputStream(pending);
+    private final ByteArrayOutputStream entry = new ByteArrayOutputStream();
+    private final DataOutputStream entryOutput = new DataOutputStream(entry);
+    private final CRC32 crc = new CRC32();
+    private int pendingEntries;
+    private int writtenEntries;
+    private int generation;
+    private boolean needsCompaction = true;
+
+    /**
+     * Creates a journal recording every change of the given trackers.
+     */
+    public ForcedChunksJournal(TicketTracker<BlockPos> blockForcedChunks, TicketTracker<UUID> entityForcedChunks) {
+        blockForcedChunks.addListener((owner, chunk, ticking, added) -> record(owner.modId(), flags(added, ticking, false), owner.owner().asLong(), 0, chunk, 0));
+        entityForcedChunks.addListener((owner, chunk, ticking, added) -> {
+            UUID uuid = owner.owner();
+            record(owner.modId(), flags(added, ticking, true), uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), chunk, 0);
+        });
+    }
+
+    /**
+     * Records a lease being added, renewed or ended.
+     *
+     * @param owner  A {@link BlockPos} or {@link UUID}.
+     * @param expiry The game time the lease runs out at, or {@code -1} if it ended.
+     */
+    void recordLease(String modId, Object owner, long chunk, boolean ticking, long expiry) {
+        boolean added = expiry != -1;
+        if (owner instanceof BlockPos pos) {
+            record(modId, flags(added, ticking, false) | LEASE, pos.asLong(), 0, chunk, expiry);
+        } else {
+            UUID uuid = (UUID) owner;
+            record(modId, flags(added, ticking, true) | LEASE, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), chunk, expiry);
+        }
+    }
+
+    private static int flags(boolean added, boolean ticking, boolean entity) {
+        return (added ? ADDED : 0) | (ticking ? TICKING : 0) | (entity ? ENTITY : 0);
+    }
+
+    private void record(String modId, int flags, long owner, long ownerLeast, long chunk, long expiry) {
+        try {
+            entry.reset();
+            entryOutput.writeByte(flags);
+            entryOutput.writeUTF(modId);
+            entryOutput.writeLong(owner);
+            if ((flags & ENTITY) != 0)
+                entryOutput.writeLong(ownerLeast);
+            entryOutput.writeLong(chunk);
+            if ((flags & LEASE) != 0 && (flags & ADDED) != 0)
+                entryOutput.writeLong(expiry);
+            byte[] bytes = entry.toByteArray();
+            crc.reset();
+            crc.update(bytes);
+            pendingOutput.writeInt(bytes.length);
+            pendingOutput.write(bytes);
+            pendingOutput.writeInt((int) crc.getValue());
+            pendingEntries++;
+        } catch (IOException e) {
+            //Only written to memory
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Remembers which saved data file is being read on this thread, so {@link #load(CompoundTag, TicketTracker, TicketTracker, ChunkLeases)} can find its
+     * journal.
+     *
+     * @apiNote Internal
+     */
+    public static void setLoadingFile(@Nullable File file) {
+        if (file == null)
+            LOADING_FILE.remove();
+        else
+            LOADING_FILE.set(file);
+    }
+
+    /**
+     * Replays the journal of the saved data that is currently being read on top of the tickets and leases read from it.
+     *
+     * @apiNote Internal
+     */
+    public void load(CompoundTag nbt, TicketTracker<BlockPos> blockForcedChunks, TicketTracker<UUID> entityForcedChunks, ChunkLeases leases) {
+        generation = nbt.getInt(GENERATION_KEY);
+        File dataFile = LOADING_FILE.get();
+        if (dataFile != null) {
+            File file = getFile(dataFile);
+            if (file.exists())
+                replay(file, blockForcedChunks, entityForcedChunks, leases);
+        }
+        //The changes made while loading are already saved
+        pending.reset();
+        pendingEntries = 0;
+    }
+
+    private void replay(File file, TicketTracker<BlockPos> blockForcedChunks, TicketTracker<UUID> entityForcedChunks, ChunkLeases leases) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            LOGGER.error("Could not read forced chunks journal {}, changes since the last full save are lost", file, e);
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+            LOGGER.error("Forced chunks journal {} is not a journal, ignoring it", file);
+            return;
+        }
+        int fileGeneration = buffer.getInt();
+        if (fileGeneration != generation) {
+            LOGGER.debug("Ignoring forced chunks journal {} of generation {}, the saved data is of generation {}", file, fileGeneration, generation);
+            return;
+        }
+        boolean skipped = false;
+        int replayed = 0;
+        while (buffer.remaining() >= 4) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            if (length <= 0 || buffer.remaining() < length + 4) {
+                buffer.position(start);
+                break;
+            }
+            crc.reset();
+            crc.update(bytes, buffer.position(), length);
+            if ((int) crc.getValue() != buffer.getInt(buffer.position() + length)) {
+                buffer.position(start);
+                break;
+            }
+            try {
+                skipped |= !apply(new DataInputStream(new ByteArrayInputStream(bytes, buffer.position(), length)), blockForcedChunks, entityForcedChunks, leases);
+            } catch (IOException e) {
+                buffer.position(start);
+                break;
+            }
+            buffer.position(buffer.position() + length + 4);
+            replayed++;
+        }
+        writtenEntries = replayed;
+        if (buffer.hasRemaining()) {
+            LOGGER.warn("Forced chunks journal {} ends with {} bytes of an incomplete entry, replayed the {} entries before it", file, buffer.remaining(), replayed);
+        } else if (!skipped) {
+            needsCompaction = false;
+        }
+    }
+
+    /**
+     * @return {@code false} if the entry was skipped because its mod is not loaded.
+     */
+    private static boolean apply(DataInputStream input, TicketTracker<BlockPos> blockForcedChunks, TicketTracker<UUID> entityForcedChunks, ChunkLeases leases)
+            throws IOException {
+        int flags = input.readByte();
+        String modId = input.readUTF();
+        boolean added = (flags & ADDED) != 0;
+        boolean ticking = (flags & TICKING) != 0;
+        if ((flags & LEASE) != 0) {
+            Object owner = (flags & ENTITY) != 0 ? new UUID(input.readLong(), input.readLong()) : BlockPos.of(input.readLong());
+            long chunk = input.readLong();
+            long expiry = added ? input.readLong() : -1;
+            if (!FabricLoader.getInstance().isModLoaded(modId))
+                return false;
+            if (added)
+                leases.restore(modId, owner, chunk, ticking, expiry);
+            else
+                leases.release(modId, owner, chunk, ticking);
+        } else if ((flags & ENTITY) != 0) {
+            UUID owner = new UUID(input.readLong(), input.readLong());
+            long chunk = input.readLong();
+            if (!FabricLoader.getInstance().isModLoaded(modId))
+                return false;
+            if (added)
+                entityForcedChunks.add(modId, owner, chunk, ticking);
+            else
+                entityForcedChunks.remove(modId, owner, chunk, ticking);
+        } else {
+            BlockPos owner = BlockPos.of(input.readLong());
+            long chunk = input.readLong();
+            if (!FabricLoader.getInstance().isModLoaded(modId))
+                return false;
+            if (added)
+                blockForcedChunks.add(modId, owner, chunk, ticking);
+            else
+                blockForcedChunks.remove(modId, owner, chunk, ticking);
+        }
+        return true;
+    }
+
+    /**
+     * Checks if there is anything to save, either new entries or a requested compaction of a journal that has entries.
+     */
+    boolean hasChanges() {
+        return pendingEntries > 0 || needsCompaction && writtenEntries > 0;
+    }
+
+    /**
+     * Checks if the next save should be a full save instead of appending to the journal.
+     */
+    boolean shouldCompact() {
+        return needsCompaction || writtenEntries + pendingEntries > ChunkLoadingConfig.JOURNAL_COMPACT_AFTER;
+    }
+
+    /**
+     * Makes the next save a full save that starts a new journal.
+     *
+     * @apiNote Internal
+     */
+    public void requestCompaction() {
+        needsCompaction = true;
+    }
+
+    /**
+     * Takes the entries recorded since the last save, to be {@link #append(File, byte[]) appended} to the journal.
+     */
+    byte[] drainPending() {
+        byte[] entries = pending.toByteArray();
+        writtenEntries += pendingEntries;
+        pending.reset();
+        pendingEntries = 0;
+        return entries;
+    }
+
+    /**
+     * Starts a new generation for a full save, dropping all recorded entries as the full save contains them.
+     *
+     * @return The new generation, to be {@link #writeGeneration(CompoundTag, int) written} to the saved data and {@link #reset(File, int) the journal}.
+     */
+    int startGeneration() {
+        pending.reset();
+        pendingEntries = 0;
+        writtenEntries = 0;
+        needsCompaction = false;
+        return ++generation;
+    }
+
+    static void writeGeneration(CompoundTag nbt, int generation) {
+        nbt.putInt(GENERATION_KEY, generation);
+    }
+
+    /**
+     * Appends entries to the journal of the given saved data file.
+     *
+     * @return {@code true} if the entries were written.
+     */
+    static boolean append(File dataFile, byte[] entries) {
+        File file = getFile(dataFile);
+        try {
+            Files.write(file.toPath(), entries, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            return true;
+        } catch (IOException e) {
+            LOGGER.error("Could not append to forced chunks journal {}", file, e);
+            return false;
+        }
+    }
+
+    /**
+     * Empties the journal of the given saved data file after it was saved in full with the given generation.
+     */
+    static void reset(File dataFile, int generation) {
+        File file = getFile(dataFile);
+        try {
+            Files.write(file.toPath(), ByteBuffer.allocate(8).putInt(MAGIC).putInt(generation).array());
+        } catch (IOException e) {
+            LOGGER.error("Could not reset forced chunks journal {}", file, e);
+        }
+    }
+
+    private static File getFile(File dataFile) {
+        return new File(dataFile.getPath() + ".journal");
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.mari023.chunkloading;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.world.level.ForcedChunksSavedData;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Saves {@link ForcedChunksSavedData} off the server thread and through its {@link ForcedChunksJournal}. The server thread only takes snapshots of the forced chunks, which are reused for trackers that
+ * didn't change since the last save, while encoding and writing the file happens on a single background thread so saves of a level stay in order.
+ */
+public final class ForcedChunksSaver {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Forced Chunks IO");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static CompletableFuture<Void> lastSave = CompletableFuture.completedFuture(null);
+
+    private ForcedChunksSaver() {
+    }
+
+    /**
+     * Saves the data to the given file, in the background if {@link ChunkLoadingConfig#ASYNC_SAVE} is enabled. With a {@link ForcedChunksJournal} only the
+     * changed tickets are appended to it, until the journal should be compacted or the vanilla forced chunks changed. Mirrors
+     * {@link net.minecraft.world.level.saveddata.SavedData#save(File)}.
+     *
+     * @apiNote Internal
+     */
+    public static void save(ForcedChunksSavedData data, File file) {
+        long start = System.nanoTime();
+        ForcedChunksJournal journal = ForgeChunkManager.getJournal(data);
+        //Data whose last save failed to be written is saved in full again
+        if (((AdditionalForcedChunksSavedData) data).takeSaveFailed())
+            data.setDirty(true);
+        if (!data.isDirty()) {
+            if (journal == null || !journal.hasChanges())
+                return;
+            if (!journal.shouldCompact()) {
+                byte[] entries = journal.drainPending();
+                submit(() -> {
+                    long ioStart = System.nanoTime();
+                    //The entries were already taken from the journal, so only a full save brings them back
+                    if (!ForcedChunksJournal.append(file, entries))
+                        ((AdditionalForcedChunksSavedData) data).markSaveFailed();
+                    ChunkLoadingStats.getLatency(ChunkLoadingStats.Operation.SAVE_IO).recordSince(ioStart);
+                });
+                ChunkLoadingStats.getLatency(ChunkLoadingStats.Operation.SAVE).recordSince(start);
+                return;
+            }
+        }
+        long[] forced = data.getChunks().toLongArray();
+        TicketSnapshot<BlockPos> blockForcedChunks = ForgeChunkManager.getBlockForcedChunks(data).snapshot();
+        TicketSnapshot<UUID> entityForcedChunks = ForgeChunkManager.getEntityForcedChunks(data).snapshot();
+        ListTag leases = ForgeChunkManager.getLeases(data).save();
+        int generation = journal == null ? -1 : journal.startGeneration();
+        data.setDirty(false);
+        submit(() -> {
+            long ioStart = System.nanoTime();
+            //The old journal still belongs to the data file if it couldn't be replaced
+            if (write(file, forced, blockForcedChunks, entityForcedChunks, leases, generation)) {
+                if (generation != -1)
+                    ForcedChunksJournal.reset(file, generation);
+            } else {
+                ((AdditionalForcedChunksSavedData) data).markSaveFailed();
+            }
+            ChunkLoadingStats.getLatency(ChunkLoadingStats.Operation.SAVE_IO).recordSince(ioStart);
+        });
+        ChunkLoadingStats.getLatency(ChunkLoadingStats.Operation.SAVE).recordSince(start);
+    }
+
+    private static void submit(Runnable task) {
+        if (ChunkLoadingConfig.ASYNC_SAVE)
+            lastSave = CompletableFuture.runAsync(task, EXECUTOR);
+        else
+            task.run();
+    }
+
+    /**
+     * @return {@code true} if the file was written.
+     */
+    private static boolean write(File file, long[] forced, TicketSnapshot<BlockPos> blockForcedChunks, TicketSnapshot<UUID> entityForcedChunks, ListTag leases,
+                              int generation) {
+        CompoundTag data = new CompoundTag();
+        //Same as ForcedChunksSavedData#save
+        data.putLongArray("Forced", forced);
+        if (!blockForcedChunks.isEmpty() || !entityForcedChunks.isEmpty())
+            PackedForcedChunks.write(data, blockForcedChunks, entityForcedChunks);
+        if (!leases.isEmpty())
+            data.put(ChunkLeases.LEASES_KEY, leases);
+        if (generation != -1)
+            ForcedChunksJournal.writeGeneration(data, generation);
+        CompoundTag compoundTag = new CompoundTag();
+        compoundTag.put("data", data);
+        compoundTag.putInt("DataVersion", SharedConstants.getCurrentVersion().getWorldVersion());
+        try {
+            NbtIo.writeCompressed(compoundTag, file);
+            return true;
+        } catch (IOException e) {
+            LOGGER.error("Could not save forced chunks to {}", file, e);
+            return false;
+        }
+    }
+
+    /**
+     * Waits for all background saves to be written.
+     *
+     * @apiNote Internal
+     */
+    public static void flush() {
+        lastSave.join();
+    }
+}
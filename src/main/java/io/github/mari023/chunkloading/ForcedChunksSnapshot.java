@@ -0,0 +1,216 @@
+package io.github.mari023.chunkloading;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongLists;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+/**
+ * Immutable view of all forced chunks of a level, published by the server thread at the end of a tick in which they changed. It can be read from any thread
+ * without locks, as nothing in it changes after it was published.
+ * <p>
+ * The chunks are kept in sorted arrays, so looking up a chunk is a binary search and range queries only look at the rows of the range. The arrays are reused
+ * from the previous snapshot when only the owners of the chunks changed.
+ *
+ * @see ForgeChunkManager#getSnapshot(net.minecraft.server.level.ServerLevel)
+ */
+public final class ForcedChunksSnapshot {
+    static final ForcedChunksSnapshot EMPTY = new ForcedChunksSnapshot(0, -1, new TicketSnapshot<>(-1, Collections.emptyMap()),
+            new TicketSnapshot<>(-1, Collections.emptyMap()), -1, new long[0], new long[0], new long[0], new long[] {-1, -1, -1, -1});
+    private static final int BLOCK_CHUNKS = 0;
+    private static final int ENTITY_CHUNKS = 1;
+    private static final int BLOCK_TICKING_CHUNKS = 2;
+    private static final int ENTITY_TICKING_CHUNKS = 3;
+
+    private final long version;
+    private final long gameTime;
+    private final TicketSnapshot<BlockPos> blockTickets;
+    private final TicketSnapshot<UUID> entityTickets;
+    private final long vanillaVersion;
+    private final long[] vanillaChunks;
+    private final long[] forcedChunks;
+    private final long[] tickingChunks;
+    /**
+     * The {@link TicketTracker#getChunksVersion() chunk versions} and {@link TicketTracker#getTickingChunksVersion() ticking chunk versions} of the trackers
+     * the arrays were built from.
+     */
+    private final long[] chunkVersions;
+
+    private ForcedChunksSnapshot(long version, long gameTime, TicketSnapshot<BlockPos> blockTickets, TicketSnapshot<UUID> entityTickets, long vanillaVersion,
+            long[] vanillaChunks, long[] forcedChunks, long[] tickingChunks, long[] chunkVersions) {
+        this.version = version;
+        this.gameTime = gameTime;
+        this.blockTickets = blockTickets;
+        this.entityTickets = entityTickets;
+        this.vanillaVersion = vanillaVersion;
+        this.vanillaChunks = vanillaChunks;
+        this.forcedChunks = forcedChunks;
+        this.tickingChunks = tickingChunks;
+        this.chunkVersions = chunkVersions;
+    }
+
+    /**
+     * Takes a snapshot of the given forced chunks, reusing the ticket snapshots the trackers cached and the arrays of the previous snapshot that are still
+     * current.
+     */
+    static ForcedChunksSnapshot create(ForcedChunksSnapshot previous, long gameTime, long vanillaVersion, LongSet vanillaChunks,
+            TicketTracker<BlockPos> blockForcedChunks, TicketTracker<UUID> entityForcedChunks) {
+        long[] chunkVersions = {blockForcedChunks.getChunksVersion(), entityForcedChunks.getChunksVersion(), blockForcedChunks.getTickingChunksVersion(),
+                entityForcedChunks.getTickingChunksVersion()};
+        boolean vanillaCurrent = previous.vanillaVersion == vanillaVersion;
+        long[] vanilla = vanillaCurrent ? previous.vanillaChunks : sorted(vanillaChunks.toLongArray());
+        long[] forcedChunks;
+        if (vanillaCurrent && previous.chunkVersions[BLOCK_CHUNKS] == chunkVersions[BLOCK_CHUNKS]
+                && previous.chunkVersions[ENTITY_CHUNKS] == chunkVersions[ENTITY_CHUNKS]) {
+            forcedChunks = previous.forcedChunks;
+        } else {
+            LongSet forced = new LongOpenHashSet(vanillaChunks);
+            forced.addAll(blockForcedChunks.getForcedChunks());
+            forced.addAll(entityForcedChunks.getForcedChunks());
+            forcedChunks = sorted(forced.toLongArray());
+        }
+        long[] tickingChunks;
+        if (previous.chunkVersions[BLOCK_TICKING_CHUNKS] == chunkVersions[BLOCK_TICKING_CHUNKS]
+                && previous.chunkVersions[ENTITY_TICKING_CHUNKS] == chunkVersions[ENTITY_TICKING_CHUNKS]) {
+            tickingChunks = previous.tickingChunks;
+        } else {
+            LongArrayList ticking = new LongArrayList();
+            for (long chunk : blockForcedChunks.getForcedChunks()) {
+                if (blockForcedChunks.isForcedTicking(chunk))
+                    ticking.add(chunk);
+            }
+            for (long chunk : entityForcedChunks.getForcedChunks()) {
+                if (entityForcedChunks.isForcedTicking(chunk) && !blockForcedChunks.isForcedTicking(chunk))
+                    ticking.add(chunk);
+            }
+            tickingChunks = sorted(ticking.toLongArray());
+        }
+        return new ForcedChunksSnapshot(previous.version + 1, gameTime, blockForcedChunks.snapshot(), entityForcedChunks.snapshot(), vanillaVersion, vanilla,
+                forcedChunks, tickingChunks, chunkVersions);
+    }
+
+    private static long[] sorted(long[] chunks) {
+        Arrays.sort(chunks);
+        return chunks;
+    }
+
+    /**
+     * Checks if this snapshot still matches the given forced chunks.
+     */
+    boolean isCurrent(long vanillaVersion, TicketTracker<BlockPos> blockForcedChunks, TicketTracker<UUID> entityForcedChunks) {
+        return this.vanillaVersion == vanillaVersion && blockTickets.getVersion() == blockForcedChunks.getVersion()
+                && entityTickets.getVersion() == entityForcedChunks.getVersion();
+    }
+
+    /**
+     * Gets the version of this snapshot, which increases with every snapshot published for the level. The snapshot before anything was published is version
+     * {@code 0}.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the game time of the tick this snapshot was published at, or {@code -1} if nothing was published yet.
+     */
+    public long getGameTime() {
+        return gameTime;
+    }
+
+    /**
+     * Gets the tickets of the blocks forcing chunks, grouped by mod.
+     */
+    public TicketSnapshot<BlockPos> getBlockTickets() {
+        return blockTickets;
+    }
+
+    /**
+     * Gets the tickets of the entities forcing chunks, grouped by mod.
+     */
+    public TicketSnapshot<UUID> getEntityTickets() {
+        return entityTickets;
+    }
+
+    /**
+     * Gets the chunks forced by vanilla, sorted.
+     */
+    public LongList getVanillaForcedChunks() {
+        return LongLists.unmodifiable(LongArrayList.wrap(vanillaChunks));
+    }
+
+    /**
+     * Gets the distinct chunks forced by vanilla, blocks or entities, sorted.
+     */
+    public LongList getForcedChunks() {
+        return LongLists.unmodifiable(LongArrayList.wrap(forcedChunks));
+    }
+
+    /**
+     * Gets the number of distinct chunks forced by vanilla, blocks or entities.
+     */
+    public int getForcedChunkCount() {
+        return forcedChunks.length;
+    }
+
+    /**
+     * Checks if the given chunk is forced by vanilla, a block or an entity.
+     */
+    public boolean isForced(int chunkX, int chunkZ) {
+        return Arrays.binarySearch(forcedChunks, ChunkPos.asLong(chunkX, chunkZ)) >= 0;
+    }
+
+    /**
+     * Checks if the given chunk is forced by a block or an entity with a fully ticking ticket.
+     */
+    public boolean isForcedTicking(int chunkX, int chunkZ) {
+        return Arrays.binarySearch(tickingChunks, ChunkPos.asLong(chunkX, chunkZ)) >= 0;
+    }
+
+    /**
+     * Gets the distinct forced chunks in the given rectangle, bounds inclusive.
+     */
+    public LongList getForcedChunksInRectangle(int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+        LongList chunks = new LongArrayList();
+        if (minChunkX > maxChunkX || minChunkZ > maxChunkZ)
+            return chunks;
+        if ((long) maxChunkZ - minChunkZ >= forcedChunks.length) {
+            //More rows than chunks, so look at every chunk instead
+            for (long chunk : forcedChunks) {
+                int x = ChunkPos.getX(chunk);
+                int z = ChunkPos.getZ(chunk);
+                if (x >= minChunkX && x <= maxChunkX && z >= minChunkZ && z <= maxChunkZ)
+                    chunks.add(chunk);
+            }
+            return chunks;
+        }
+        for (int z = minChunkZ; z <= maxChunkZ; z++) {
+            //Within a row the chunks are sorted by x as unsigned, so negative x come after positive x
+            if (minChunkX < 0 && maxChunkX >= 0) {
+                addRow(chunks, z, 0, maxChunkX);
+                addRow(chunks, z, minChunkX, -1);
+            } else {
+                addRow(chunks, z, minChunkX, maxChunkX);
+            }
+            if (z == Integer.MAX_VALUE)
+                break;
+        }
+        return chunks;
+    }
+
+    private void addRow(LongList chunks, int z, int minX, int maxX) {
+        int from = Arrays.binarySearch(forcedChunks, ChunkPos.asLong(minX, z));
+        if (from < 0)
+            from = -from - 1;
+        long last = ChunkPos.asLong(maxX, z);
+        for (int i = from; i < forcedChunks.length && forcedChunks[i] <= last; i++) {
+            chunks.add(forcedChunks[i]);
+        }
+    }
+}
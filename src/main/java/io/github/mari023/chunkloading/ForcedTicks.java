@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+package io.github.mari023.chunkloading;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+
+/**
+ * The chunks whose ticks are forced by ticking tickets, with the number of such tickets on each. Chunks without any are removed, so checking a chunk is a single
+ * map probe, which is skipped entirely while no chunk is forced.
+ */
+public class ForcedTicks {
+    private final Long2IntOpenHashMap tickets = new Long2IntOpenHashMap();
+
+    /**
+     * Adds a ticking ticket to the given chunk.
+     */
+    public void add(long chunk) {
+        tickets.addTo(chunk, 1);
+    }
+
+    /**
+     * Removes a ticking ticket from the given chunk.
+     */
+    public void remove(long chunk) {
+        if (tickets.addTo(chunk, -1) <= 1)
+            tickets.remove(chunk);
+    }
+
+    /**
+     * Checks if any chunk has its ticks forced.
+     */
+    public boolean isEmpty() {
+        return tickets.isEmpty();
+    }
+
+    /**
+     * Checks if the given chunk has its ticks forced. This runs for every loaded chunk each tick.
+     */
+    public boolean contains(long chunk) {
+        return !tickets.isEmpty() && tickets.containsKey(chunk);
+    }
+
+    /**
+     * Gets the number of chunks whose ticks are forced.
+     */
+    public int size() {
+        return tickets.size();
+    }
+}
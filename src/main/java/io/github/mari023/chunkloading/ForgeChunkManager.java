@@ -5,37 +5,49 @@
 package io.github.mari023.chunkloading;
 
 import com.mojang.datafixers.util.Pair;
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongCollection;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongLists;
 import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import it.unimi.dsi.fastutil.longs.LongSet;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.NbtUtils;
 import net.minecraft.nbt.Tag;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.server.level.TicketType;
+import net.minecraft.util.Unit;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.ForcedChunksSavedData;
+import net.minecraft.world.level.chunk.ChunkStatus;
+import net.minecraft.world.level.chunk.LevelChunk;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.util.*;
-import java.util.function.BiConsumer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 
 @ParametersAreNonnullByDefault
 public class ForgeChunkManager {
     private static final Logger LOGGER = LogManager.getLogger();
-    private static final TicketType<TicketOwner<BlockPos>> BLOCK = TicketType.create("forge:block", Comparator.comparing(info -> info));
-    private static final TicketType<TicketOwner<BlockPos>> BLOCK_TICKING = TicketType.create("forge:block_ticking", Comparator.comparing(info -> info));
-    private static final TicketType<TicketOwner<UUID>> ENTITY = TicketType.create("forge:entity", Comparator.comparing(info -> info));
-    private static final TicketType<TicketOwner<UUID>> ENTITY_TICKING = TicketType.create("forge:entity_ticking", Comparator.comparing(info -> info));
+    //Tickets are shared by all owners forcing a chunk, see AdditionalDistanceManager, so they are keyed by Unit instead of by owner
+    private static final TicketType<Unit> BLOCK = TicketType.create("forge:block", (a, b) -> 0);
+    private static final TicketType<Unit> BLOCK_TICKING = TicketType.create("forge:block_ticking", (a, b) -> 0);
+    private static final TicketType<Unit> ENTITY = TicketType.create("forge:entity", (a, b) -> 0);
+    private static final TicketType<Unit> ENTITY_TICKING = TicketType.create("forge:entity_ticking", (a, b) -> 0);
     private static final Map<String, LoadingValidationCallback> callbacks = new HashMap<>();
+    private static final List<TicketChangeListener> changeListeners = new CopyOnWriteArrayList<>();
 
     /**
      * Sets the forced chunk loading validation callback for the given mod. This allows for validating and removing no longer valid tickets on level load.
@@ -47,15 +59,142 @@ public class ForgeChunkManager {
             LOGGER.warn("A mod attempted to set the forced chunk validation loading callback for an unloaded mod of id: {}", modId);
     }
 
+    /**
+     * Checks if the given ticket type is one of the types of forge tickets.
+     *
+     * @apiNote Internal
+     */
+    public static boolean isForgeTicketType(TicketType<?> type) {
+        return type == BLOCK || type == BLOCK_TICKING || type == ENTITY || type == ENTITY_TICKING;
+    }
+
+    /**
+     * Adds a listener that receives the forge tickets added to and removed from each level once per tick, so mods mirroring the forced chunks can update
+     * incrementally instead of comparing all tickets. Changes are only recorded while a listener is registered, so register it before the levels are loaded
+     * to receive their initial tickets.
+     */
+    public static void addChangeListener(TicketChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added with {@link #addChangeListener(TicketChangeListener)}.
+     */
+    public static void removeChangeListener(TicketChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    static boolean hasChangeListeners() {
+        return !changeListeners.isEmpty();
+    }
+
+    /**
+     * Delivers the ticket changes of the level recorded since the last call to the listeners, at the end of every tick of the level.
+     *
+     * @apiNote Internal
+     */
+    public static void deliverChanges(ServerLevel level) {
+        ForcedChunksSavedData data = getForcedChunksData(level);
+        if (data == null)
+            return;
+        TicketChangeBatch changes = getChangeRecorder(data).drain();
+        if (changes == null)
+            return;
+        for (TicketChangeListener listener : changeListeners) {
+            try {
+                listener.onChanges(level, changes);
+            } catch (RuntimeException e) {
+                LOGGER.error("Ticket change listener {} failed in {}", listener, level.dimension().location(), e);
+            }
+        }
+    }
+
+    /**
+     * Gets the last published snapshot of the forced chunks of a level. This can be called from any thread and never blocks the server thread, the snapshot is
+     * replaced at the end of each tick in which the forced chunks changed, so it lags behind by at most a tick. Publishing starts with the first call for a
+     * level, which gets an empty snapshot unless it is made on the server thread.
+     */
+    public static ForcedChunksSnapshot getSnapshot(ServerLevel level) {
+        return ((AdditionalServerLevel) level).getSnapshotPublisher().get(level);
+    }
+
+    /**
+     * Gets the statistics of the forced chunks of a level, counting its current tickets per mod.
+     *
+     * @see ChunkLoadingStats#getLatency(ChunkLoadingStats.Operation)
+     */
+    public static ChunkLoadingStats.LevelStats getStats(ServerLevel level) {
+        ForcedChunksSavedData data = getForcedChunksData(level);
+        AdditionalDistanceManager distanceManager = (AdditionalDistanceManager) level.getChunkSource().distanceManager;
+        List<ChunkLoadingStats.ModStats> mods = ((AdditionalServerLevel) level).getChunkLoadingStats().getModStats(data);
+        int throttleInterval = ((AdditionalServerLevel) level).getTickThrottle().getInterval();
+        if (data == null)
+            return new ChunkLoadingStats.LevelStats(0, 0, 0, distanceManager.getForcedTickingChunkCount(), getPendingReinstatements(level), throttleInterval, mods);
+        return new ChunkLoadingStats.LevelStats(data.getChunks().size(), getBlockForcedChunks(data).getForcedChunkCount(), getEntityForcedChunks(data).getForcedChunkCount(),
+                distanceManager.getForcedTickingChunkCount(), getPendingReinstatements(level), throttleInterval, mods);
+    }
+
     /**
      * Checks if a level has any forced chunks. Mainly used for seeing if a level should continue ticking with no players in it.
      */
     public static boolean hasForcedChunks(ServerLevel level) {
-        ForcedChunksSavedData data = level.getDataStorage().get(ForcedChunksSavedData::load, "chunks");
+        ForcedChunksSavedData data = getForcedChunksData(level);
         if (data == null) return false;
         return !data.getChunks().isEmpty() || !getBlockForcedChunks(data).isEmpty() || !getEntityForcedChunks(data).isEmpty();
     }
 
+    /**
+     * Gets the number of forced chunks of a level, counting the chunks forced by vanilla, by blocks and by entities separately, so a chunk forced in more than
+     * one way is counted once for each.
+     */
+    public static int getForcedChunkCount(ServerLevel level) {
+        ForcedChunksSavedData data = getForcedChunksData(level);
+        if (data == null) return 0;
+        return data.getChunks().size() + getBlockForcedChunks(data).getForcedChunkCount() + getEntityForcedChunks(data).getForcedChunkCount();
+    }
+
+    /**
+     * Checks if any mod is forcing the given chunk, through either a block, an entity or a vanilla forced chunk.
+     */
+    public static boolean isChunkForced(ServerLevel level, int chunkX, int chunkZ) {
+        ForcedChunksSavedData data = getForcedChunksData(level);
+        if (data == null) return false;
+        long chunk = ChunkPos.asLong(chunkX, chunkZ);
+        return data.getChunks().contains(chunk) || getBlockForcedChunks(data).isForced(chunk) || getEntityForcedChunks(data).isForced(chunk);
+    }
+
+    /**
+     * Checks if any mod is forcing the given chunk with a fully ticking ticket.
+     */
+    public static boolean isChunkForcedTicking(ServerLevel level, int chunkX, int chunkZ) {
+        ForcedChunksSavedData data = getForcedChunksData(level);
+        if (data == null) return false;
+        long chunk = ChunkPos.asLong(chunkX, chunkZ);
+        return getBlockForcedChunks(data).isForcedTicking(chunk) || getEntityForcedChunks(data).isForcedTicking(chunk);
+    }
+
+    /**
+     * Gets the block positions forcing the given chunk, along with the amount of non-ticking and fully ticking tickets on it.
+     *
+     * @return The tickets of the chunk, or {@code null} if no block is forcing it.
+     */
+    @Nullable
+    public static TicketTracker.ChunkTickets<BlockPos> getBlockTickets(ServerLevel level, int chunkX, int chunkZ) {
+        ForcedChunksSavedData data = getForcedChunksData(level);
+        return data == null ? null : getBlockForcedChunks(data).getChunkTickets(ChunkPos.asLong(chunkX, chunkZ));
+    }
+
+    /**
+     * Gets the entities (UUID) forcing the given chunk, along with the amount of non-ticking and fully ticking tickets on it.
+     *
+     * @return The tickets of the chunk, or {@code null} if no entity is forcing it.
+     */
+    @Nullable
+    public static TicketTracker.ChunkTickets<UUID> getEntityTickets(ServerLevel level, int chunkX, int chunkZ) {
+        ForcedChunksSavedData data = getForcedChunksData(level);
+        return data == null ? null : getEntityForcedChunks(data).getChunkTickets(ChunkPos.asLong(chunkX, chunkZ));
+    }
+
     /**
      * Forces a chunk to be loaded for the given mod with the "owner" of the ticket being a given block position.
      *
@@ -63,7 +202,7 @@ public class ForgeChunkManager {
      * @param ticking {@code true} to make the chunk receive full chunk ticks even if there is no player nearby.
      */
     public static boolean forceChunk(ServerLevel level, String modId, BlockPos owner, int chunkX, int chunkZ, boolean add, boolean ticking) {
-        return forceChunk(level, modId, owner, chunkX, chunkZ, add, ticking, ticking ? BLOCK_TICKING : BLOCK, ForgeChunkManager::getBlockForcedChunks);
+        return forceChunk(level, modId, owner, chunkX, chunkZ, add, ticking, ticking ? BLOCK_TICKING : BLOCK, ForgeChunkManager::getBlockForcedChunks, true, 0).isChanged();
     }
 
     /**
@@ -83,39 +222,589 @@ public class ForgeChunkManager {
      * @param ticking {@code true} to make the chunk receive full chunk ticks even if there is no player nearby.
      */
     public static boolean forceChunk(ServerLevel level, String modId, UUID owner, int chunkX, int chunkZ, boolean add, boolean ticking) {
-        return forceChunk(level, modId, owner, chunkX, chunkZ, add, ticking, ticking ? ENTITY_TICKING : ENTITY, ForgeChunkManager::getEntityForcedChunks);
+        return forceChunk(level, modId, owner, chunkX, chunkZ, add, ticking, ticking ? ENTITY_TICKING : ENTITY, ForgeChunkManager::getEntityForcedChunks, true, 0).isChanged();
+    }
+
+    /**
+     * Forces a chunk to be loaded for the given mod with the "owner" of the ticket being a given block position, like
+     * {@link #forceChunk(ServerLevel, String, BlockPos, int, int, boolean, boolean)} but telling why the chunk wasn't forced.
+     *
+     * @param add     {@code true} to force the chunk, {@code false} to unforce the chunk.
+     * @param ticking {@code true} to make the chunk receive full chunk ticks even if there is no player nearby.
+     */
+    public static ForceChunkResult tryForceChunk(ServerLevel level, String modId, BlockPos owner, int chunkX, int chunkZ, boolean add, boolean ticking) {
+        return forceChunk(level, modId, owner, chunkX, chunkZ, add, ticking, ticking ? BLOCK_TICKING : BLOCK, ForgeChunkManager::getBlockForcedChunks, true, 0);
+    }
+
+    /**
+     * Forces a chunk to be loaded for the given mod with the "owner" of the ticket being the UUID of the given entity, telling why the chunk wasn't forced.
+     *
+     * @see #tryForceChunk(ServerLevel, String, BlockPos, int, int, boolean, boolean)
+     */
+    public static ForceChunkResult tryForceChunk(ServerLevel level, String modId, Entity owner, int chunkX, int chunkZ, boolean add, boolean ticking) {
+        return tryForceChunk(level, modId, owner.getUUID(), chunkX, chunkZ, add, ticking);
+    }
+
+    /**
+     * Forces a chunk to be loaded for the given mod with the "owner" of the ticket being a given UUID, telling why the chunk wasn't forced.
+     *
+     * @see #tryForceChunk(ServerLevel, String, BlockPos, int, int, boolean, boolean)
+     */
+    public static ForceChunkResult tryForceChunk(ServerLevel level, String modId, UUID owner, int chunkX, int chunkZ, boolean add, boolean ticking) {
+        return forceChunk(level, modId, owner, chunkX, chunkZ, add, ticking, ticking ? ENTITY_TICKING : ENTITY, ForgeChunkManager::getEntityForcedChunks, true, 0);
+    }
+
+    /**
+     * Forces a chunk to be loaded for the given mod with the "owner" of the ticket being a given block position for a limited time. Unless the lease is renewed
+     * by calling this again before it runs out, the chunk is unforced once the given number of ticks passed. The lease is kept across restarts and counts game
+     * time, so it doesn't run while the server is stopped. Forcing the chunk with {@link #forceChunk(ServerLevel, String, BlockPos, int, int, boolean, boolean)}
+     * makes the ticket permanent again, and unforcing it ends the lease.
+     *
+     * @param ticking    {@code true} to make the chunk receive full chunk ticks even if there is no player nearby.
+     * @param leaseTicks Number of ticks from now after which the chunk is unforced, must be positive.
+     */
+    public static ForceChunkResult forceChunkLeased(ServerLevel level, String modId, BlockPos owner, int chunkX, int chunkZ, boolean ticking, int leaseTicks) {
+        checkLeaseTicks(leaseTicks);
+        return forceChunk(level, modId, owner.immutable(), chunkX, chunkZ, true, ticking, ticking ? BLOCK_TICKING : BLOCK, ForgeChunkManager::getBlockForcedChunks,
+                true, leaseTicks);
+    }
+
+    /**
+     * Forces a chunk to be loaded for the given mod with the "owner" of the ticket being the UUID of the given entity for a limited time.
+     *
+     * @see #forceChunkLeased(ServerLevel, String, BlockPos, int, int, boolean, int)
+     */
+    public static ForceChunkResult forceChunkLeased(ServerLevel level, String modId, Entity owner, int chunkX, int chunkZ, boolean ticking, int leaseTicks) {
+        return forceChunkLeased(level, modId, owner.getUUID(), chunkX, chunkZ, ticking, leaseTicks);
+    }
+
+    /**
+     * Forces a chunk to be loaded for the given mod with the "owner" of the ticket being a given UUID for a limited time.
+     *
+     * @see #forceChunkLeased(ServerLevel, String, BlockPos, int, int, boolean, int)
+     */
+    public static ForceChunkResult forceChunkLeased(ServerLevel level, String modId, UUID owner, int chunkX, int chunkZ, boolean ticking, int leaseTicks) {
+        checkLeaseTicks(leaseTicks);
+        return forceChunk(level, modId, owner, chunkX, chunkZ, true, ticking, ticking ? ENTITY_TICKING : ENTITY, ForgeChunkManager::getEntityForcedChunks, true,
+                leaseTicks);
+    }
+
+    private static void checkLeaseTicks(int leaseTicks) {
+        if (leaseTicks <= 0)
+            throw new IllegalArgumentException("Lease must last at least one tick, got " + leaseTicks);
+    }
+
+    /**
+     * Sets the priority of the chunks forced by the given block when their ticks are throttled because the server is overloaded, overriding the priority
+     * configured for the mod. The priority is not saved, so it should be set again when the block is loaded.
+     *
+     * @param priority The priority, or {@code null} to use the one of the mod again.
+     * @see ChunkLoadingConfig#THROTTLE_MSPT
+     */
+    public static void setTickPriority(ServerLevel level, String modId, BlockPos owner, @Nullable TickPriority priority) {
+        ((AdditionalServerLevel) level).getTickThrottle().setOwnerPriority(modId, owner, priority);
+    }
+
+    /**
+     * Sets the priority of the chunks forced by the given entity when their ticks are throttled.
+     *
+     * @see #setTickPriority(ServerLevel, String, BlockPos, TickPriority)
+     */
+    public static void setTickPriority(ServerLevel level, String modId, Entity owner, @Nullable TickPriority priority) {
+        setTickPriority(level, modId, owner.getUUID(), priority);
+    }
+
+    /**
+     * Sets the priority of the chunks forced by the given UUID when their ticks are throttled.
+     *
+     * @see #setTickPriority(ServerLevel, String, BlockPos, TickPriority)
+     */
+    public static void setTickPriority(ServerLevel level, String modId, UUID owner, @Nullable TickPriority priority) {
+        ((AdditionalServerLevel) level).getTickThrottle().setOwnerPriority(modId, owner, priority);
+    }
+
+    /**
+     * Unforces the chunks whose lease ran out, on the server thread at the start of every tick of the level.
+     *
+     * @apiNote Internal
+     */
+    public static void tickLeases(ServerLevel level) {
+        ForcedChunksSavedData saveData = getForcedChunksData(level);
+        if (saveData == null)
+            return;
+        getLeases(saveData).tick(level.getGameTime(), lease -> {
+            if (lease.owner() instanceof BlockPos pos)
+                unforceExpired(level, saveData, getBlockForcedChunks(saveData), lease.modId(), pos, lease.chunk(), lease.ticking(), lease.ticking() ? BLOCK_TICKING : BLOCK);
+            else
+                unforceExpired(level, saveData, getEntityForcedChunks(saveData), lease.modId(), (UUID) lease.owner(), lease.chunk(), lease.ticking(),
+                        lease.ticking() ? ENTITY_TICKING : ENTITY);
+        });
+    }
+
+    private static <T extends Comparable<? super T>> void unforceExpired(ServerLevel level, ForcedChunksSavedData saveData, TicketTracker<T> tickets, String modId,
+                                                                         T owner, long chunk, boolean ticking, TicketType<Unit> type) {
+        if (tickets.remove(modId, owner, chunk, ticking)) {
+            markChanged(saveData);
+            forceChunk(level, chunk, type, false, ticking);
+            ((AdditionalServerLevel) level).getChunkLoadingStats().recordChanges(modId, false, 1);
+        }
+    }
+
+    /**
+     * Forces a chunk to be loaded for the given mod with the "owner" of the ticket being a given block position, without blocking the server thread while the
+     * chunk is loaded or generated.
+     *
+     * @param ticking {@code true} to make the chunk receive full chunk ticks even if there is no player nearby.
+     * @return A future that completes with the chunk once it is fully loaded, also if the chunk was already forced by this owner. It completes exceptionally
+     * with a {@link ForceChunkException} if the mod is not loaded or a quota rejected the ticket.
+     * @apiNote Must be called from the server thread, like {@link #forceChunk(ServerLevel, String, BlockPos, int, int, boolean, boolean)}.
+     */
+    public static CompletableFuture<LevelChunk> forceChunkAsync(ServerLevel level, String modId, BlockPos owner, int chunkX, int chunkZ, boolean ticking) {
+        return loadChunkAsync(level, forceChunk(level, modId, owner, chunkX, chunkZ, true, ticking, ticking ? BLOCK_TICKING : BLOCK, ForgeChunkManager::getBlockForcedChunks,
+                false, 0), chunkX, chunkZ);
+    }
+
+    /**
+     * Forces a chunk to be loaded for the given mod with the "owner" of the ticket being the UUID of the given entity, without blocking the server thread while
+     * the chunk is loaded or generated.
+     *
+     * @param ticking {@code true} to make the chunk receive full chunk ticks even if there is no player nearby.
+     * @return A future that completes with the chunk once it is fully loaded, also if the chunk was already forced by this owner. It completes exceptionally
+     * with a {@link ForceChunkException} if the mod is not loaded or a quota rejected the ticket.
+     * @apiNote Must be called from the server thread.
+     */
+    public static CompletableFuture<LevelChunk> forceChunkAsync(ServerLevel level, String modId, Entity owner, int chunkX, int chunkZ, boolean ticking) {
+        return forceChunkAsync(level, modId, owner.getUUID(), chunkX, chunkZ, ticking);
+    }
+
+    /**
+     * Forces a chunk to be loaded for the given mod with the "owner" of the ticket being a given UUID, without blocking the server thread while the chunk is
+     * loaded or generated.
+     *
+     * @param ticking {@code true} to make the chunk receive full chunk ticks even if there is no player nearby.
+     * @return A future that completes with the chunk once it is fully loaded, also if the chunk was already forced by this owner. It completes exceptionally
+     * with a {@link ForceChunkException} if the mod is not loaded or a quota rejected the ticket.
+     * @apiNote Must be called from the server thread.
+     */
+    public static CompletableFuture<LevelChunk> forceChunkAsync(ServerLevel level, String modId, UUID owner, int chunkX, int chunkZ, boolean ticking) {
+        return loadChunkAsync(level, forceChunk(level, modId, owner, chunkX, chunkZ, true, ticking, ticking ? ENTITY_TICKING : ENTITY, ForgeChunkManager::getEntityForcedChunks,
+                false, 0), chunkX, chunkZ);
+    }
+
+    /**
+     * Schedules the chunk to be brought to full status by the chunk system and returns a future for it instead of waiting for it like
+     * {@link ServerLevel#getChunk(int, int)} does. If the chunk could not be forced the future fails right away instead, as nothing keeps the chunk loaded.
+     */
+    private static CompletableFuture<LevelChunk> loadChunkAsync(ServerLevel level, ForceChunkResult forced, int chunkX, int chunkZ) {
+        if (forced != ForceChunkResult.CHANGED && forced != ForceChunkResult.UNCHANGED)
+            return CompletableFuture.failedFuture(new ForceChunkException(forced, chunkX, chunkZ));
+        return level.getChunkSource().getChunkFutureMainThread(chunkX, chunkZ, ChunkStatus.FULL, true).thenApply(result -> result.map(
+                chunk -> (LevelChunk) chunk,
+                failure -> {
+                    throw new IllegalStateException("Forced chunk [" + chunkX + ", " + chunkZ + "] failed to load: " + failure);
+                }));
+    }
+
+    /**
+     * Queues forcing or unforcing a chunk for the given mod with the "owner" of the ticket being a given block position. Unlike the other methods this may be
+     * called from any thread, the request is processed on the server thread at the start of one of the next ticks of the level. The chunk is not loaded
+     * synchronously, the chunk system loads it once the ticket propagates.
+     *
+     * @param add     {@code true} to force the chunk, {@code false} to unforce the chunk.
+     * @param ticking {@code true} to make the chunk receive full chunk ticks even if there is no player nearby.
+     * @return A future completed on the server thread with {@code true} if the request changed the state, or {@code false} if it didn't or was superseded by a
+     * later request for the same owner and chunk processed in the same tick.
+     */
+    public static CompletableFuture<Boolean> queueForceChunk(ServerLevel level, String modId, BlockPos owner, int chunkX, int chunkZ, boolean add, boolean ticking) {
+        return ((AdditionalServerLevel) level).getForceChunkQueue().submit(modId, owner.immutable(), ChunkPos.asLong(chunkX, chunkZ), add, ticking);
+    }
+
+    /**
+     * Queues forcing or unforcing a chunk for the given mod with the "owner" of the ticket being the UUID of the given entity. May be called from any thread.
+     *
+     * @see #queueForceChunk(ServerLevel, String, BlockPos, int, int, boolean, boolean)
+     */
+    public static CompletableFuture<Boolean> queueForceChunk(ServerLevel level, String modId, Entity owner, int chunkX, int chunkZ, boolean add, boolean ticking) {
+        return queueForceChunk(level, modId, owner.getUUID(), chunkX, chunkZ, add, ticking);
+    }
+
+    /**
+     * Queues forcing or unforcing a chunk for the given mod with the "owner" of the ticket being a given UUID. May be called from any thread.
+     *
+     * @see #queueForceChunk(ServerLevel, String, BlockPos, int, int, boolean, boolean)
+     */
+    public static CompletableFuture<Boolean> queueForceChunk(ServerLevel level, String modId, UUID owner, int chunkX, int chunkZ, boolean add, boolean ticking) {
+        return ((AdditionalServerLevel) level).getForceChunkQueue().submit(modId, owner, ChunkPos.asLong(chunkX, chunkZ), add, ticking);
+    }
+
+    /**
+     * Processes a request of the {@link ForceChunkQueue}, on the server thread.
+     */
+    static boolean forceQueuedChunk(ServerLevel level, String modId, Object owner, long chunk, boolean add, boolean ticking) {
+        int chunkX = ChunkPos.getX(chunk);
+        int chunkZ = ChunkPos.getZ(chunk);
+        if (owner instanceof BlockPos pos)
+            return forceChunk(level, modId, pos, chunkX, chunkZ, add, ticking, ticking ? BLOCK_TICKING : BLOCK, ForgeChunkManager::getBlockForcedChunks, false, 0).isChanged();
+        return forceChunk(level, modId, (UUID) owner, chunkX, chunkZ, add, ticking, ticking ? ENTITY_TICKING : ENTITY, ForgeChunkManager::getEntityForcedChunks, false, 0).isChanged();
     }
 
     /**
      * Forces a chunk to be loaded for the given mod with the given "owner".
      *
-     * @param add {@code true} to force the chunk, {@code false} to unforce the chunk.
+     * @param add        {@code true} to force the chunk, {@code false} to unforce the chunk.
+     * @param loadChunk  {@code true} to synchronously load the chunk if it was forced.
+     * @param leaseTicks Number of ticks to lease the ticket for, or {@code 0} to force it permanently. Ignored when unforcing.
      * @implNote Based on {@link ServerLevel#setChunkForced(int, int, boolean)}
      */
-    private static <T extends Comparable<? super T>> boolean forceChunk(ServerLevel level, String modId, T owner, int chunkX, int chunkZ, boolean add, boolean ticking,
-                                                                        TicketType<TicketOwner<T>> type, Function<ForcedChunksSavedData, TicketTracker<T>> ticketGetter) {
+    private static <T extends Comparable<? super T>> ForceChunkResult forceChunk(ServerLevel level, String modId, T owner, int chunkX, int chunkZ, boolean add,
+                                                                                 boolean ticking, TicketType<Unit> type,
+                                                                                 Function<ForcedChunksSavedData, TicketTracker<T>> ticketGetter, boolean loadChunk,
+                                                                                 int leaseTicks) {
         if (!FabricLoader.getInstance().isModLoaded(modId)) {
             LOGGER.warn("A mod attempted to force a chunk for an unloaded mod of id: {}", modId);
-            return false;
+            return ForceChunkResult.MOD_NOT_LOADED;
         }
-        ForcedChunksSavedData saveData = level.getDataStorage().computeIfAbsent(ForcedChunksSavedData::load, ForcedChunksSavedData::new, "chunks");
-        ChunkPos pos = new ChunkPos(chunkX, chunkZ);
-        long chunk = pos.toLong();
+        long start = System.nanoTime();
+        ForcedChunksSavedData saveData = getOrCreateForcedChunksData(level);
+        long chunk = ChunkPos.asLong(chunkX, chunkZ);
         TicketTracker<T> tickets = ticketGetter.apply(saveData);
-        TicketOwner<T> ticketOwner = new TicketOwner<>(modId, owner);
         boolean success;
         if (add) {
-            success = tickets.add(ticketOwner, chunk, ticking);
-            if (success)
+            ForceChunkResult rejection = ChunkQuotas.check(level, saveData, tickets, modId, owner, chunk, ticking);
+            if (rejection == ForceChunkResult.OWNER_QUOTA_EXCEEDED && ChunkLoadingConfig.QUOTA_EVICT_OLDEST) {
+                Long oldest = tickets.getOldestChunk(modId, owner, ticking);
+                if (oldest != null && tickets.remove(modId, owner, oldest, ticking)) {
+                    markChanged(saveData);
+                    forceChunk(level, oldest, type, false, ticking);
+                    ((AdditionalServerLevel) level).getChunkLoadingStats().recordChanges(modId, false, 1);
+                }
+                rejection = ChunkQuotas.check(level, saveData, tickets, modId, owner, chunk, ticking);
+            }
+            if (rejection != null) {
+                LOGGER.debug("Rejected forcing chunk [{}, {}] for {} of mod {}: {}", chunkX, chunkZ, owner, modId, rejection);
+                ((AdditionalServerLevel) level).getChunkLoadingStats().recordRejections(modId, 1);
+                ChunkLoadingStats.getLatency(ChunkLoadingStats.Operation.FORCE_CHUNK).recordSince(start);
+                return rejection;
+            }
+            success = tickets.add(modId, owner, chunk, ticking);
+            //Whichever way the ticket was forced last decides if it is leased
+            if (leaseTicks > 0)
+                getLeases(saveData).lease(modId, owner, chunk, ticking, level.getGameTime(), level.getGameTime() + leaseTicks);
+            else
+                getLeases(saveData).release(modId, owner, chunk, ticking);
+            if (success && loadChunk)
                 level.getChunk(chunkX, chunkZ);
         } else {
-            success = tickets.remove(ticketOwner, chunk, ticking);
+            success = tickets.remove(modId, owner, chunk, ticking);
         }
         if (success) {
-            saveData.setDirty(true);
-            forceChunk(level, pos, type, ticketOwner, add, ticking);
+            markChanged(saveData);
+            forceChunk(level, chunk, type, add, ticking);
+            ((AdditionalServerLevel) level).getChunkLoadingStats().recordChanges(modId, add, 1);
+        }
+        ChunkLoadingStats.getLatency(ChunkLoadingStats.Operation.FORCE_CHUNK).recordSince(start);
+        return success ? ForceChunkResult.CHANGED : ForceChunkResult.UNCHANGED;
+    }
+
+    /**
+     * Forces or unforces all the given chunks for the given mod with the "owner" of the tickets being a given block position. Unlike
+     * {@link #forceChunk(ServerLevel, String, BlockPos, int, int, boolean, boolean)} the chunks are not loaded synchronously, the chunk system loads them once the
+     * tickets propagate.
+     *
+     * @param chunks  Chunks to force, in the {@link ChunkPos#toLong()} format. See {@link #chunksInRectangle(int, int, int, int)} and
+     *                {@link #chunksInRadius(int, int, int)}.
+     * @param add     {@code true} to force the chunks, {@code false} to unforce the chunks.
+     * @param ticking {@code true} to make the chunks receive full chunk ticks even if there is no player nearby.
+     * @return The number of chunks whose state changed.
+     */
+    public static int forceChunks(ServerLevel level, String modId, BlockPos owner, LongCollection chunks, boolean add, boolean ticking) {
+        return tryForceChunks(level, modId, owner, chunks, add, ticking).changed();
+    }
+
+    /**
+     * Forces or unforces all the given chunks for the given mod with the "owner" of the tickets being the UUID of the given entity.
+     *
+     * @param chunks  Chunks to force, in the {@link ChunkPos#toLong()} format.
+     * @param add     {@code true} to force the chunks, {@code false} to unforce the chunks.
+     * @param ticking {@code true} to make the chunks receive full chunk ticks even if there is no player nearby.
+     * @return The number of chunks whose state changed.
+     */
+    public static int forceChunks(ServerLevel level, String modId, Entity owner, LongCollection chunks, boolean add, boolean ticking) {
+        return forceChunks(level, modId, owner.getUUID(), chunks, add, ticking);
+    }
+
+    /**
+     * Forces or unforces all the given chunks for the given mod with the "owner" of the tickets being a given UUID.
+     *
+     * @param chunks  Chunks to force, in the {@link ChunkPos#toLong()} format.
+     * @param add     {@code true} to force the chunks, {@code false} to unforce the chunks.
+     * @param ticking {@code true} to make the chunks receive full chunk ticks even if there is no player nearby.
+     * @return The number of chunks whose state changed.
+     */
+    public static int forceChunks(ServerLevel level, String modId, UUID owner, LongCollection chunks, boolean add, boolean ticking) {
+        return tryForceChunks(level, modId, owner, chunks, add, ticking).changed();
+    }
+
+    /**
+     * Forces or unforces all the given chunks for the given mod with the "owner" of the tickets being a given block position, like
+     * {@link #forceChunks(ServerLevel, String, BlockPos, LongCollection, boolean, boolean)} but telling which quota stopped the chunks from being forced.
+     *
+     * @param add     {@code true} to force the chunks, {@code false} to unforce the chunks.
+     * @param ticking {@code true} to make the chunks receive full chunk ticks even if there is no player nearby.
+     */
+    public static ForceChunksResult tryForceChunks(ServerLevel level, String modId, BlockPos owner, LongCollection chunks, boolean add, boolean ticking) {
+        return forceChunks(level, modId, owner, chunks, add, ticking, ticking ? BLOCK_TICKING : BLOCK, ForgeChunkManager::getBlockForcedChunks);
+    }
+
+    /**
+     * Forces or unforces all the given chunks for the given mod with the "owner" of the tickets being the UUID of the given entity, telling which quota stopped
+     * the chunks from being forced.
+     *
+     * @see #tryForceChunks(ServerLevel, String, BlockPos, LongCollection, boolean, boolean)
+     */
+    public static ForceChunksResult tryForceChunks(ServerLevel level, String modId, Entity owner, LongCollection chunks, boolean add, boolean ticking) {
+        return tryForceChunks(level, modId, owner.getUUID(), chunks, add, ticking);
+    }
+
+    /**
+     * Forces or unforces all the given chunks for the given mod with the "owner" of the tickets being a given UUID, telling which quota stopped the chunks from
+     * being forced.
+     *
+     * @see #tryForceChunks(ServerLevel, String, BlockPos, LongCollection, boolean, boolean)
+     */
+    public static ForceChunksResult tryForceChunks(ServerLevel level, String modId, UUID owner, LongCollection chunks, boolean add, boolean ticking) {
+        return forceChunks(level, modId, owner, chunks, add, ticking, ticking ? ENTITY_TICKING : ENTITY, ForgeChunkManager::getEntityForcedChunks);
+    }
+
+    /**
+     * Forces or unforces all the given chunks for the given mod with the given "owner", validating the mod and looking up the save data only once.
+     */
+    private static <T extends Comparable<? super T>> ForceChunksResult forceChunks(ServerLevel level, String modId, T owner, LongCollection chunks, boolean add,
+                                                                                   boolean ticking, TicketType<Unit> type,
+                                                                                   Function<ForcedChunksSavedData, TicketTracker<T>> ticketGetter) {
+        if (!FabricLoader.getInstance().isModLoaded(modId)) {
+            LOGGER.warn("A mod attempted to force chunks for an unloaded mod of id: {}", modId);
+            return new ForceChunksResult(0, ForceChunkResult.MOD_NOT_LOADED, chunks.size());
+        }
+        if (chunks.isEmpty())
+            return new ForceChunksResult(0, null, 0);
+        long start = System.nanoTime();
+        ForcedChunksSavedData saveData = getOrCreateForcedChunksData(level);
+        TicketTracker<T> tickets = ticketGetter.apply(saveData);
+        LongList changed;
+        ForceChunkResult rejection = null;
+        int rejected = 0;
+        if (add) {
+            ChunkQuotas.Limited limited = ChunkQuotas.limit(level, saveData, tickets, modId, owner, chunks, ticking);
+            changed = tickets.addAll(modId, owner, limited.allowed(), ticking);
+            //Forcing a chunk permanently ends its lease, like forceChunk does
+            ChunkLeases leases = getLeases(saveData);
+            for (long chunk : limited.allowed()) {
+                leases.release(modId, owner, chunk, ticking);
+            }
+            rejection = limited.rejection();
+            rejected = limited.rejected();
+            if (rejection != null) {
+                LOGGER.debug("Rejected forcing {} chunks for {} of mod {}: {}", rejected, owner, modId, rejection);
+                ((AdditionalServerLevel) level).getChunkLoadingStats().recordRejections(modId, rejected);
+            }
+        } else {
+            changed = tickets.removeAll(modId, owner, chunks, ticking);
         }
-        return success;
+        if (!changed.isEmpty()) {
+            markChanged(saveData);
+            AdditionalDistanceManager distanceManager = (AdditionalDistanceManager) level.getChunkSource().distanceManager;
+            if (add)
+                distanceManager.addRegionTickets(type, changed, 2, Unit.INSTANCE, ticking);
+            else
+                distanceManager.removeRegionTickets(type, changed, 2, Unit.INSTANCE, ticking);
+            ((AdditionalServerLevel) level).getChunkLoadingStats().recordChanges(modId, add, changed.size());
+        }
+        ChunkLoadingStats.getLatency(ChunkLoadingStats.Operation.FORCE_CHUNK).recordSince(start);
+        return new ForceChunksResult(changed.size(), rejection, rejected);
+    }
+
+    /**
+     * Unforces every chunk the given block position forces in the level for the given mod, both non-ticking and fully ticking, in one pass over its tickets.
+     *
+     * @return The number of tickets that were removed.
+     */
+    public static int releaseAll(ServerLevel level, String modId, BlockPos owner) {
+        ForcedChunksSavedData saveData = getForcedChunksData(level);
+        if (saveData == null)
+            return 0;
+        return releaseOwner(level, saveData, getBlockForcedChunks(saveData), modId, owner, BLOCK, BLOCK_TICKING);
+    }
+
+    /**
+     * Unforces every chunk the given entity forces for the given mod in any level of the server, for example when the entity died or changed dimension.
+     *
+     * @return The number of tickets that were removed.
+     */
+    public static int releaseAll(MinecraftServer server, String modId, Entity owner) {
+        return releaseAll(server, modId, owner.getUUID());
+    }
+
+    /**
+     * Unforces every chunk the given UUID forces for the given mod in any level of the server, both non-ticking and fully ticking. Each level is only asked
+     * for the tickets of the owner, so this takes time in the number of its tickets rather than of all tickets.
+     *
+     * @return The number of tickets that were removed.
+     */
+    public static int releaseAll(MinecraftServer server, String modId, UUID owner) {
+        int removed = 0;
+        for (ServerLevel level : server.getAllLevels()) {
+            ForcedChunksSavedData saveData = getForcedChunksData(level);
+            if (saveData != null)
+                removed += releaseOwner(level, saveData, getEntityForcedChunks(saveData), modId, owner, ENTITY, ENTITY_TICKING);
+        }
+        return removed;
+    }
+
+    /**
+     * Unforces every chunk forced by the blocks and entities of the given mod in any level of the server. Unlike the validation callback this also removes the
+     * tickets from the chunk system, so it can be used at any time, for example when a mod disables its chunk loaders.
+     *
+     * @return The number of tickets that were removed.
+     */
+    public static int releaseAllForMod(MinecraftServer server, String modId) {
+        int removed = 0;
+        for (ServerLevel level : server.getAllLevels()) {
+            ForcedChunksSavedData saveData = getForcedChunksData(level);
+            if (saveData != null) {
+                removed += releaseMod(level, saveData, getBlockForcedChunks(saveData), modId, BLOCK, BLOCK_TICKING);
+                removed += releaseMod(level, saveData, getEntityForcedChunks(saveData), modId, ENTITY, ENTITY_TICKING);
+            }
+        }
+        return removed;
+    }
+
+    private static <T extends Comparable<? super T>> int releaseMod(ServerLevel level, ForcedChunksSavedData saveData, TicketTracker<T> tickets, String modId,
+                                                                    TicketType<Unit> type, TicketType<Unit> tickingType) {
+        List<T> owners = new ArrayList<>();
+        for (Iterator<? extends TicketTracker.OwnerTickets<T>> iterator = tickets.ownerTicketsIterator(modId); iterator.hasNext(); ) {
+            owners.add(iterator.next().owner());
+        }
+        int removed = 0;
+        for (T owner : owners) {
+            removed += releaseOwner(level, saveData, tickets, modId, owner, type, tickingType);
+        }
+        return removed;
+    }
+
+    /**
+     * Removes all tickets of an owner from the tracker, then drops them from the chunk system in a batch per ticket type.
+     */
+    private static <T extends Comparable<? super T>> int releaseOwner(ServerLevel level, ForcedChunksSavedData saveData, TicketTracker<T> tickets, String modId,
+                                                                      T owner, TicketType<Unit> type, TicketType<Unit> tickingType) {
+        TicketTracker.OwnerTickets<T> ownerTickets = tickets.getOwnerTickets(modId, owner);
+        if (ownerTickets == null)
+            return 0;
+        long start = System.nanoTime();
+        LongSet chunks = ownerTickets.getChunks(false);
+        LongSet tickingChunks = ownerTickets.getChunks(true);
+        //The owner's sets are emptied as its tickets are removed
+        LongList removed = chunks == null ? LongLists.emptyList() : new LongArrayList(chunks);
+        LongList removedTicking = tickingChunks == null ? LongLists.emptyList() : new LongArrayList(tickingChunks);
+        tickets.removeOwner(modId, owner);
+        markChanged(saveData);
+        AdditionalDistanceManager distanceManager = (AdditionalDistanceManager) level.getChunkSource().distanceManager;
+        distanceManager.removeRegionTickets(type, removed, 2, Unit.INSTANCE, false);
+        distanceManager.removeRegionTickets(tickingType, removedTicking, 2, Unit.INSTANCE, true);
+        int count = removed.size() + removedTicking.size();
+        ((AdditionalServerLevel) level).getChunkLoadingStats().recordChanges(modId, false, count);
+        ChunkLoadingStats.getLatency(ChunkLoadingStats.Operation.FORCE_CHUNK).recordSince(start);
+        return count;
+    }
+
+    /**
+     * Gets all chunks in the given rectangle, bounds inclusive, for use with the bulk {@code forceChunks} methods.
+     *
+     * @throws IllegalArgumentException If the rectangle has more chunks than fit in a list.
+     */
+    public static LongList chunksInRectangle(int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+        if (minChunkX > maxChunkX || minChunkZ > maxChunkZ)
+            return new LongArrayList();
+        long area = ((long) maxChunkX - minChunkX + 1) * ((long) maxChunkZ - minChunkZ + 1);
+        if (area > it.unimi.dsi.fastutil.Arrays.MAX_ARRAY_SIZE)
+            throw new IllegalArgumentException("Rectangle from [" + minChunkX + ", " + minChunkZ + "] to [" + maxChunkX + ", " + maxChunkZ + "] has too many chunks: " + area);
+        LongList chunks = new LongArrayList((int) area);
+        for (int x = minChunkX; x <= maxChunkX; x++) {
+            for (int z = minChunkZ; z <= maxChunkZ; z++) {
+                chunks.add(ChunkPos.asLong(x, z));
+                if (z == Integer.MAX_VALUE)
+                    break;
+            }
+            if (x == Integer.MAX_VALUE)
+                break;
+        }
+        return chunks;
+    }
+
+    /**
+     * Gets all chunks in the square of the given radius around a center chunk, for use with the bulk {@code forceChunks} methods. A radius of {@code 2} gives
+     * a 5x5 area.
+     *
+     * @throws IllegalArgumentException If the square has more chunks than fit in a list.
+     */
+    public static LongList chunksInRadius(int centerChunkX, int centerChunkZ, int radius) {
+        return chunksInRectangle((int) Math.max(Integer.MIN_VALUE, (long) centerChunkX - radius), (int) Math.max(Integer.MIN_VALUE, (long) centerChunkZ - radius),
+                (int) Math.min(Integer.MAX_VALUE, (long) centerChunkX + radius), (int) Math.min(Integer.MAX_VALUE, (long) centerChunkZ + radius));
+    }
+
+    /**
+     * Gets the chunks forced by forge tickets in the given rectangle, bounds inclusive. Uses a spatial index of the forced chunks, so the cost follows the
+     * number of chunks found rather than the size of the rectangle.
+     *
+     * @return The forced chunks in the {@link ChunkPos#toLong()} format, in no particular order.
+     */
+    public static LongList getForcedChunksInRectangle(ServerLevel level, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+        LongList chunks = new LongArrayList();
+        ForcedChunksSavedData data = getForcedChunksData(level);
+        if (data == null)
+            return chunks;
+        TicketTracker<BlockPos> blockForcedChunks = getBlockForcedChunks(data);
+        blockForcedChunks.forEachForcedChunk(minChunkX, minChunkZ, maxChunkX, maxChunkZ, chunks::add);
+        getEntityForcedChunks(data).forEachForcedChunk(minChunkX, minChunkZ, maxChunkX, maxChunkZ, chunk -> {
+            if (!blockForcedChunks.isForced(chunk))
+                chunks.add(chunk);
+        });
+        return chunks;
+    }
+
+    /**
+     * Gets the chunks forced by forge tickets in the square of the given radius around a center chunk.
+     *
+     * @see #getForcedChunksInRectangle(ServerLevel, int, int, int, int)
+     */
+    public static LongList getForcedChunksInRadius(ServerLevel level, int centerChunkX, int centerChunkZ, int radius) {
+        return getForcedChunksInRectangle(level, (int) Math.max(Integer.MIN_VALUE, (long) centerChunkX - radius),
+                (int) Math.max(Integer.MIN_VALUE, (long) centerChunkZ - radius), (int) Math.min(Integer.MAX_VALUE, (long) centerChunkX + radius),
+                (int) Math.min(Integer.MAX_VALUE, (long) centerChunkZ + radius));
+    }
+
+    /**
+     * Finds the chunk forced by forge tickets that is closest to the given chunk.
+     *
+     * @param maxDistance Maximum distance on either axis to search.
+     * @return The closest forced chunk, or {@code null} if there is none within the distance.
+     */
+    @Nullable
+    public static ChunkPos getNearestForcedChunk(ServerLevel level, int chunkX, int chunkZ, int maxDistance) {
+        ForcedChunksSavedData data = getForcedChunksData(level);
+        if (data == null)
+            return null;
+        ChunkPos nearestBlock = getBlockForcedChunks(data).getNearestForcedChunk(chunkX, chunkZ, maxDistance);
+        ChunkPos nearestEntity = getEntityForcedChunks(data).getNearestForcedChunk(chunkX, chunkZ, maxDistance);
+        if (nearestBlock == null || nearestEntity == null)
+            return nearestBlock == null ? nearestEntity : nearestBlock;
+        return distanceSquared(nearestEntity, chunkX, chunkZ) < distanceSquared(nearestBlock, chunkX, chunkZ) ? nearestEntity : nearestBlock;
+    }
+
+    private static long distanceSquared(ChunkPos pos, int chunkX, int chunkZ) {
+        long dx = pos.x - chunkX;
+        long dz = pos.z - chunkZ;
+        return dx * dx + dz * dz;
     }
 
     /**
@@ -126,12 +815,11 @@ public class ForgeChunkManager {
      * @implNote We use distance 2 for what we pass, as when using register/releaseTicket the ticket's level is set to 33 - distance and the level that forced chunks use
      * is 31.
      */
-    private static <T extends Comparable<? super T>> void forceChunk(ServerLevel level, ChunkPos pos, TicketType<TicketOwner<T>> type, TicketOwner<T> owner, boolean add,
-                                                                     boolean ticking) {
+    private static void forceChunk(ServerLevel level, long chunk, TicketType<Unit> type, boolean add, boolean ticking) {
         if (add)
-            ((AdditionalDistanceManager) level.getChunkSource().distanceManager).addRegionTicket(type, pos, 2, owner, ticking);
+            ((AdditionalDistanceManager) level.getChunkSource().distanceManager).addRegionTicket(type, chunk, 2, Unit.INSTANCE, ticking);
         else
-            ((AdditionalDistanceManager) level.getChunkSource().distanceManager).removeRegionTicket(type, pos, 2, owner, ticking);
+            ((AdditionalDistanceManager) level.getChunkSource().distanceManager).removeRegionTicket(type, chunk, 2, Unit.INSTANCE, ticking);
     }
 
     /**
@@ -141,118 +829,177 @@ public class ForgeChunkManager {
      * @apiNote Internal
      */
     public static void reinstatePersistentChunks(ServerLevel level, ForcedChunksSavedData saveData) {
-        if (!callbacks.isEmpty()) {
-            //If we have any callbacks, gather all owned tickets by modid for both blocks and entities
-            Map<String, Map<BlockPos, Pair<LongSet, LongSet>>> blockTickets = gatherTicketsByModId(getBlockForcedChunks(saveData));
-            Map<String, Map<UUID, Pair<LongSet, LongSet>>> entityTickets = gatherTicketsByModId(getEntityForcedChunks(saveData));
-            //Fire the callbacks allowing them to remove any tickets they don't want anymore
-            for (Map.Entry<String, LoadingValidationCallback> entry : callbacks.entrySet()) {
-                String modId = entry.getKey();
-                boolean hasBlockTicket = blockTickets.containsKey(modId);
-                boolean hasEntityTicket = entityTickets.containsKey(modId);
-                if (hasBlockTicket || hasEntityTicket) {
-                    Map<BlockPos, Pair<LongSet, LongSet>> ownedBlockTickets = hasBlockTicket ? Collections.unmodifiableMap(blockTickets.get(modId)) : Collections.emptyMap();
-                    Map<UUID, Pair<LongSet, LongSet>> ownedEntityTickets = hasEntityTicket ? Collections.unmodifiableMap(entityTickets.get(modId)) : Collections.emptyMap();
-                    entry.getValue().validateTickets(level, new TicketHelper(saveData, modId, ownedBlockTickets, ownedEntityTickets));
-                }
+        long start = System.nanoTime();
+        if (!callbacks.isEmpty())
+            validateTickets(level, saveData);
+        //Reinstate the chunks that we want to load
+        reinstatePersistentChunks(level, BLOCK, getBlockForcedChunks(saveData).getChunks(), false);
+        reinstatePersistentChunks(level, BLOCK_TICKING, getBlockForcedChunks(saveData).getTickingChunks(), true);
+        reinstatePersistentChunks(level, ENTITY, getEntityForcedChunks(saveData).getChunks(), false);
+        reinstatePersistentChunks(level, ENTITY_TICKING, getEntityForcedChunks(saveData).getTickingChunks(), true);
+        if (ChunkLoadingConfig.isReinstatementStaggered()) {
+            TicketReinstatement reinstatement = ((AdditionalDistanceManager) level.getChunkSource().distanceManager).getTicketReinstatement();
+            if (!reinstatement.isEmpty()) {
+                BlockPos spawn = level.getSharedSpawnPos();
+                reinstatement.sort(SectionPos.blockToSectionCoord(spawn.getX()), SectionPos.blockToSectionCoord(spawn.getZ()));
+                LOGGER.info("Reinstating {} forced chunk tickets in {} over the next ticks", reinstatement.getTotal() - reinstatement.getReinstated(), level.dimension().location());
             }
         }
-        //Reinstate the chunks that we want to load
-        reinstatePersistentChunks(level, BLOCK, getBlockForcedChunks(saveData).chunks, false);
-        reinstatePersistentChunks(level, BLOCK_TICKING, getBlockForcedChunks(saveData).tickingChunks, true);
-        reinstatePersistentChunks(level, ENTITY, getEntityForcedChunks(saveData).chunks, false);
-        reinstatePersistentChunks(level, ENTITY_TICKING, getEntityForcedChunks(saveData).tickingChunks, true);
+        ChunkLoadingStats.getLatency(ChunkLoadingStats.Operation.REINSTATE).recordSince(start);
+    }
+
+    /**
+     * Fires the {@link LoadingValidationCallback}s of the mods that have tickets, allowing them to remove any tickets they don't want anymore. The callbacks
+     * run on the server thread, as they look up blocks and block entities in the level.
+     */
+    private static void validateTickets(ServerLevel level, ForcedChunksSavedData saveData) {
+        //Gather all owned tickets by modid for both blocks and entities, only for the mods that have a callback
+        Map<String, Map<BlockPos, Pair<LongSet, LongSet>>> blockTickets = gatherTicketsByModId(getBlockForcedChunks(saveData), callbacks.keySet());
+        Map<String, Map<UUID, Pair<LongSet, LongSet>>> entityTickets = gatherTicketsByModId(getEntityForcedChunks(saveData), callbacks.keySet());
+        long timeLimit = ChunkLoadingConfig.VALIDATION_MILLIS_LIMIT * 1_000_000L;
+        long start = System.nanoTime();
+        for (Map.Entry<String, LoadingValidationCallback> entry : callbacks.entrySet()) {
+            String modId = entry.getKey();
+            boolean hasBlockTicket = blockTickets.containsKey(modId);
+            boolean hasEntityTicket = entityTickets.containsKey(modId);
+            if (hasBlockTicket || hasEntityTicket) {
+                Map<BlockPos, Pair<LongSet, LongSet>> ownedBlockTickets = hasBlockTicket ? Collections.unmodifiableMap(blockTickets.get(modId)) : Collections.emptyMap();
+                Map<UUID, Pair<LongSet, LongSet>> ownedEntityTickets = hasEntityTicket ? Collections.unmodifiableMap(entityTickets.get(modId)) : Collections.emptyMap();
+                long time = validateTickets(level, entry.getValue(), new TicketHelper(saveData, modId, ownedBlockTickets, ownedEntityTickets));
+                if (timeLimit > 0 && time > timeLimit)
+                    LOGGER.warn("Validating forced chunk tickets of mod {} took {} ms, longer than the limit of {} ms", modId, time / 1_000_000, timeLimit / 1_000_000);
+                else
+                    LOGGER.debug("Validated forced chunk tickets of mod {} in {} ms", modId, time / 1_000_000);
+            }
+        }
+        LOGGER.debug("Validated forced chunk tickets in {} in {} ms", level.dimension().location(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static long validateTickets(ServerLevel level, LoadingValidationCallback callback, TicketHelper ticketHelper) {
+        long start = System.nanoTime();
+        callback.validateTickets(level, ticketHelper);
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Reinstates the next forced chunks of the level within the configured per tick budget, when reinstating is staggered. Forced chunks in view of a player
+     * are reinstated first and don't count against the budget, as the player is already keeping them loaded.
+     *
+     * @apiNote Internal
+     */
+    public static void tickReinstatement(ServerLevel level) {
+        AdditionalDistanceManager distanceManager = (AdditionalDistanceManager) level.getChunkSource().distanceManager;
+        TicketReinstatement reinstatement = distanceManager.getTicketReinstatement();
+        if (reinstatement.isEmpty()) return;
+        long deadline = ChunkLoadingConfig.REINSTATE_MILLIS_PER_TICK > 0 ? System.nanoTime() + ChunkLoadingConfig.REINSTATE_MILLIS_PER_TICK * 1_000_000L : 0;
+        int viewDistance = level.getServer().getPlayerList().getViewDistance();
+        for (ServerPlayer player : level.players()) {
+            ChunkPos center = player.chunkPosition();
+            reinstatement.reinstateInView(distanceManager, player.getUUID(), center.x, center.z, viewDistance);
+        }
+        reinstatement.reinstate(distanceManager, ChunkLoadingConfig.REINSTATE_CHUNKS_PER_TICK, deadline);
+        if (reinstatement.isEmpty())
+            LOGGER.info("Finished reinstating {} forced chunk tickets in {}", reinstatement.getReinstated(), level.dimension().location());
+        else if (level.getGameTime() % 100 == 0)
+            LOGGER.info("Reinstated {}/{} forced chunk tickets in {}", reinstatement.getReinstated(), reinstatement.getTotal(), level.dimension().location());
+    }
+
+    /**
+     * Gets the number of persistent forced chunk tickets of the level that are still waiting to be reinstated, when reinstating is staggered over multiple
+     * ticks.
+     */
+    public static int getPendingReinstatements(ServerLevel level) {
+        TicketReinstatement reinstatement = ((AdditionalDistanceManager) level.getChunkSource().distanceManager).getTicketReinstatement();
+        return reinstatement.getTotal() - reinstatement.getReinstated();
     }
 
     /**
      * Gathers tickets into a mod filtered map for use in providing all tickets a mod has registered to its {@link LoadingValidationCallback}.
      */
-    private static <T extends Comparable<? super T>> Map<String, Map<T, Pair<LongSet, LongSet>>> gatherTicketsByModId(TicketTracker<T> tickets) {
+    static <T extends Comparable<? super T>> Map<String, Map<T, Pair<LongSet, LongSet>>> gatherTicketsByModId(TicketTracker<T> tickets, Set<String> modIds) {
         Map<String, Map<T, Pair<LongSet, LongSet>>> modSortedOwnedChunks = new HashMap<>();
-        gatherTicketsByModId(tickets.chunks, Pair::getFirst, modSortedOwnedChunks);
-        gatherTicketsByModId(tickets.tickingChunks, Pair::getSecond, modSortedOwnedChunks);
+        for (String modId : modIds) {
+            //Only the partitions of the given mods are looked at
+            int ownerCount = tickets.getOwnerCount(modId);
+            if (ownerCount == 0)
+                continue;
+            Map<T, Pair<LongSet, LongSet>> ownedChunks = new HashMap<>(ownerCount * 4 / 3 + 1);
+            for (Iterator<? extends TicketTracker.OwnerTickets<T>> iterator = tickets.ownerTicketsIterator(modId); iterator.hasNext(); ) {
+                TicketTracker.OwnerTickets<T> ownerTickets = iterator.next();
+                ownedChunks.put(ownerTickets.owner(), new Pair<>(copyChunks(ownerTickets.getChunks(false)), copyChunks(ownerTickets.getChunks(true))));
+            }
+            modSortedOwnedChunks.put(modId, ownedChunks);
+        }
         return modSortedOwnedChunks;
     }
 
     /**
-     * Gathers tickets into a mod filtered map for use in providing all tickets a mod has registered to its {@link LoadingValidationCallback}.
+     * Copies the chunks of an owner, as the validation callbacks may remove tickets while iterating them.
      */
-    private static <T extends Comparable<? super T>> void gatherTicketsByModId(Map<TicketOwner<T>, LongSet> tickets, Function<Pair<LongSet, LongSet>, LongSet> typeGetter,
-                                                                               Map<String, Map<T, Pair<LongSet, LongSet>>> modSortedOwnedChunks) {
-        for (Map.Entry<TicketOwner<T>, LongSet> entry : tickets.entrySet()) {
-            Pair<LongSet, LongSet> pair = modSortedOwnedChunks.computeIfAbsent(entry.getKey().modId(), modId -> new HashMap<>())
-                    .computeIfAbsent(entry.getKey().owner(), owner -> new Pair<>(new LongOpenHashSet(), new LongOpenHashSet()));
-            typeGetter.apply(pair).addAll(entry.getValue());
-        }
+    private static LongSet copyChunks(@Nullable LongSet chunks) {
+        return chunks == null ? new LongOpenHashSet() : new LongOpenHashSet(chunks);
     }
 
     /**
-     * Adds back any persistent forced chunks to the level's chunk provider.
+     * Adds back any persistent forced chunks to the level's chunk provider, or queues them to be added back over the next ticks if reinstating is staggered.
      */
-    private static <T extends Comparable<? super T>> void reinstatePersistentChunks(ServerLevel level, TicketType<TicketOwner<T>> type,
-                                                                                    Map<TicketOwner<T>, LongSet> tickets, boolean ticking) {
-        for (Map.Entry<TicketOwner<T>, LongSet> entry : tickets.entrySet()) {
-            for (long chunk : entry.getValue()) {
-                forceChunk(level, new ChunkPos(chunk), type, entry.getKey(), true, ticking);
-            }
+    private static <T extends Comparable<? super T>> void reinstatePersistentChunks(ServerLevel level, TicketType<Unit> type, Map<TicketOwner<T>, LongSet> tickets,
+                                                                                    boolean ticking) {
+        AdditionalDistanceManager distanceManager = (AdditionalDistanceManager) level.getChunkSource().distanceManager;
+        boolean staggered = ChunkLoadingConfig.isReinstatementStaggered();
+        for (LongSet chunks : tickets.values()) {
+            if (staggered)
+                distanceManager.getTicketReinstatement().add(type, chunks, 2, Unit.INSTANCE, ticking);
+            else
+                distanceManager.addRegionTickets(type, chunks, 2, Unit.INSTANCE, ticking);
         }
     }
 
     /**
-     * Writes the forge forced chunks into the NBT compound. Format is List{modid, List{ChunkPos, List{BlockPos}, List{UUID}}}
+     * Writes the forge forced chunks into the NBT compound, in the packed format of {@link PackedForcedChunks}.
      *
      * @apiNote Internal
      */
     public static void writeForgeForcedChunks(CompoundTag nbt, TicketTracker<BlockPos> blockForcedChunks, TicketTracker<UUID> entityForcedChunks) {
         if (!blockForcedChunks.isEmpty() || !entityForcedChunks.isEmpty()) {
-            Map<String, Long2ObjectMap<CompoundTag>> forcedEntries = new HashMap<>();
-            writeForcedChunkOwners(forcedEntries, blockForcedChunks, "Blocks", Tag.TAG_COMPOUND, (pos, forcedBlocks) -> forcedBlocks.add(NbtUtils.writeBlockPos(pos)));
-            writeForcedChunkOwners(forcedEntries, entityForcedChunks, "Entities", Tag.TAG_INT_ARRAY, (uuid, forcedEntities) -> forcedEntities.add(NbtUtils.createUUID(uuid)));
-            ListTag forcedChunks = new ListTag();
-            for (Map.Entry<String, Long2ObjectMap<CompoundTag>> entry : forcedEntries.entrySet()) {
-                CompoundTag forcedEntry = new CompoundTag();
-                forcedEntry.putString("Mod", entry.getKey());
-                ListTag modForced = new ListTag();
-                modForced.addAll(entry.getValue().values());
-                forcedEntry.put("ModForced", modForced);
-                forcedChunks.add(forcedEntry);
-            }
-            nbt.put("ForgeForced", forcedChunks);
+            PackedForcedChunks.write(nbt, blockForcedChunks.snapshot(), entityForcedChunks.snapshot());
         }
     }
 
-    private static <T extends Comparable<? super T>> void writeForcedChunkOwners(Map<String, Long2ObjectMap<CompoundTag>> forcedEntries, TicketTracker<T> tracker,
-                                                                                 String listKey, int listType, BiConsumer<T, ListTag> ownerWriter) {
-        writeForcedChunkOwners(forcedEntries, tracker.chunks, listKey, listType, ownerWriter);
-        writeForcedChunkOwners(forcedEntries, tracker.tickingChunks, "Ticking" + listKey, listType, ownerWriter);
-    }
-
-    private static <T extends Comparable<? super T>> void writeForcedChunkOwners(Map<String, Long2ObjectMap<CompoundTag>> forcedEntries,
-                                                                                 Map<TicketOwner<T>, LongSet> forcedChunks, String listKey, int listType, BiConsumer<T, ListTag> ownerWriter) {
-        for (Map.Entry<TicketOwner<T>, LongSet> entry : forcedChunks.entrySet()) {
-            Long2ObjectMap<CompoundTag> modForced = forcedEntries.computeIfAbsent(entry.getKey().modId(), modId -> new Long2ObjectOpenHashMap<>());
-            for (long chunk : entry.getValue()) {
-                CompoundTag modEntry = modForced.computeIfAbsent(chunk, chunkPos -> {
-                    CompoundTag baseEntry = new CompoundTag();
-                    baseEntry.putLong("Chunk", chunkPos);
-                    return baseEntry;
-                });
-                ListTag ownerList = modEntry.getList(listKey, listType);
-                ownerWriter.accept(entry.getKey().owner(), ownerList);
-                //Note: As getList returns a new list in the case the data is of the wrong type,
-                // we need to mimic was vanilla does in various places and put our list back in
-                // the CompoundNBT regardless.
-                modEntry.put(listKey, ownerList);
-            }
-        }
+    /**
+     * Writes the leases on forge tickets into the NBT compound, if there are any.
+     *
+     * @apiNote Internal
+     */
+    public static void writeLeases(CompoundTag nbt, ChunkLeases leases) {
+        if (leases.size() > 0)
+            nbt.put(ChunkLeases.LEASES_KEY, leases.save());
     }
 
     /**
-     * Reads the forge forced chunks from the NBT compound. Format is List{modid, List{ChunkPos, List{BlockPos}, List{UUID}}}
+     * Reads the forge forced chunks from the NBT compound, in either the packed format of {@link PackedForcedChunks} or the legacy format.
      *
+     * @return {@code true} if the legacy format was read, so the data should be saved again to migrate it.
      * @apiNote Internal
      */
-    public static void readForgeForcedChunks(CompoundTag nbt, TicketTracker<BlockPos> blockForcedChunks, TicketTracker<UUID> entityForcedChunks) {
+    public static boolean readForgeForcedChunks(CompoundTag nbt, TicketTracker<BlockPos> blockForcedChunks, TicketTracker<UUID> entityForcedChunks) {
+        if (nbt.contains(PackedForcedChunks.KEY, Tag.TAG_LIST)) {
+            int version = nbt.getInt(PackedForcedChunks.VERSION_KEY);
+            if (version > PackedForcedChunks.VERSION)
+                LOGGER.warn("Found forced chunk data of version {} which is newer than the supported version {}, trying to read it anyway.", version, PackedForcedChunks.VERSION);
+            PackedForcedChunks.read(nbt, blockForcedChunks, entityForcedChunks);
+            return false;
+        }
+        if (!nbt.contains("ForgeForced", Tag.TAG_LIST))
+            return false;
+        readLegacyForgeForcedChunks(nbt, blockForcedChunks, entityForcedChunks);
+        return true;
+    }
+
+    /**
+     * Reads the forge forced chunks from the NBT compound in the legacy format. Format is List{modid, List{ChunkPos, List{BlockPos}, List{UUID}}}
+     */
+    private static void readLegacyForgeForcedChunks(CompoundTag nbt, TicketTracker<BlockPos> blockForcedChunks, TicketTracker<UUID> entityForcedChunks) {
         ListTag forcedChunks = nbt.getList("ForgeForced", Tag.TAG_COMPOUND);
         for (int i = 0; i < forcedChunks.size(); i++) {
             CompoundTag forcedEntry = forcedChunks.getCompound(i);
@@ -262,10 +1009,10 @@ public class ForgeChunkManager {
                 for (int j = 0; j < modForced.size(); j++) {
                     CompoundTag modEntry = modForced.getCompound(j);
                     long chunkPos = modEntry.getLong("Chunk");
-                    readBlockForcedChunks(modId, chunkPos, modEntry, "Blocks", blockForcedChunks.chunks);
-                    readBlockForcedChunks(modId, chunkPos, modEntry, "TickingBlocks", blockForcedChunks.tickingChunks);
-                    readEntityForcedChunks(modId, chunkPos, modEntry, "Entities", entityForcedChunks.chunks);
-                    readEntityForcedChunks(modId, chunkPos, modEntry, "TickingEntities", entityForcedChunks.tickingChunks);
+                    readBlockForcedChunks(modId, chunkPos, modEntry, "Blocks", blockForcedChunks, false);
+                    readBlockForcedChunks(modId, chunkPos, modEntry, "TickingBlocks", blockForcedChunks, true);
+                    readEntityForcedChunks(modId, chunkPos, modEntry, "Entities", entityForcedChunks, false);
+                    readEntityForcedChunks(modId, chunkPos, modEntry, "TickingEntities", entityForcedChunks, true);
                 }
             } else {
                 LOGGER.warn("Found chunk loading data for mod {} which is currently not available or active - it will be removed from the level save.", modId);
@@ -276,20 +1023,20 @@ public class ForgeChunkManager {
     /**
      * Reads the forge block forced chunks.
      */
-    private static void readBlockForcedChunks(String modId, long chunkPos, CompoundTag modEntry, String key, Map<TicketOwner<BlockPos>, LongSet> blockForcedChunks) {
+    private static void readBlockForcedChunks(String modId, long chunkPos, CompoundTag modEntry, String key, TicketTracker<BlockPos> blockForcedChunks, boolean ticking) {
         ListTag forcedBlocks = modEntry.getList(key, Tag.TAG_COMPOUND);
         for (int k = 0; k < forcedBlocks.size(); k++) {
-            blockForcedChunks.computeIfAbsent(new TicketOwner<>(modId, NbtUtils.readBlockPos(forcedBlocks.getCompound(k))), owner -> new LongOpenHashSet()).add(chunkPos);
+            blockForcedChunks.add(new TicketOwner<>(modId, NbtUtils.readBlockPos(forcedBlocks.getCompound(k))), chunkPos, ticking);
         }
     }
 
     /**
      * Reads the forge entity forced chunks.
      */
-    private static void readEntityForcedChunks(String modId, long chunkPos, CompoundTag modEntry, String key, Map<TicketOwner<UUID>, LongSet> entityForcedChunks) {
+    private static void readEntityForcedChunks(String modId, long chunkPos, CompoundTag modEntry, String key, TicketTracker<UUID> entityForcedChunks, boolean ticking) {
         ListTag forcedEntities = modEntry.getList(key, Tag.TAG_INT_ARRAY);
         for (Tag uuid : forcedEntities) {
-            entityForcedChunks.computeIfAbsent(new TicketOwner<>(modId, NbtUtils.loadUUID(uuid)), owner -> new LongOpenHashSet()).add(chunkPos);
+            entityForcedChunks.add(new TicketOwner<>(modId, NbtUtils.loadUUID(uuid)), chunkPos, ticking);
         }
     }
 
@@ -304,6 +1051,28 @@ public class ForgeChunkManager {
         void validateTickets(ServerLevel level, TicketHelper ticketHelper);
     }
 
+    /**
+     * Gets the forced chunks of a level. The saved data is looked up once and then kept on the level, so this doesn't go through the data storage.
+     *
+     * @return The forced chunks, or {@code null} if nothing was ever forced in the level.
+     */
+    @Nullable
+    public static ForcedChunksSavedData getForcedChunksData(ServerLevel level) {
+        return ((AdditionalServerLevel) level).getForcedChunksData();
+    }
+
+    /**
+     * Gets the forced chunks of a level, creating them if nothing was forced in the level yet.
+     */
+    static ForcedChunksSavedData getOrCreateForcedChunksData(ServerLevel level) {
+        ForcedChunksSavedData data = getForcedChunksData(level);
+        if (data == null) {
+            data = level.getDataStorage().computeIfAbsent(ForcedChunksSavedData::load, ForcedChunksSavedData::new, "chunks");
+            ((AdditionalServerLevel) level).setForcedChunksData(data);
+        }
+        return data;
+    }
+
     public static TicketTracker<BlockPos> getBlockForcedChunks(ForcedChunksSavedData savedData) {
         return ((AdditionalForcedChunksSavedData) savedData).getBlockForcedChunks();
     }
@@ -311,4 +1080,30 @@ public class ForgeChunkManager {
     public static TicketTracker<UUID> getEntityForcedChunks(ForcedChunksSavedData savedData) {
         return ((AdditionalForcedChunksSavedData) savedData).getEntityForcedChunks();
     }
+
+    @Nullable
+    public static ForcedChunksJournal getJournal(ForcedChunksSavedData savedData) {
+        return ((AdditionalForcedChunksSavedData) savedData).getJournal();
+    }
+
+    static TicketChangeRecorder getChangeRecorder(ForcedChunksSavedData savedData) {
+        return ((AdditionalForcedChunksSavedData) savedData).getChangeRecorder();
+    }
+
+    static LevelForcedChunks getLevelForcedChunks(ForcedChunksSavedData savedData) {
+        return ((AdditionalForcedChunksSavedData) savedData).getLevelForcedChunks();
+    }
+
+    public static ChunkLeases getLeases(ForcedChunksSavedData savedData) {
+        return ((AdditionalForcedChunksSavedData) savedData).getLeases();
+    }
+
+    /**
+     * Marks the save data as changed after forge tickets were added or removed. With a journal the changes are already recorded in it, so the save data isn't
+     * marked dirty to avoid saving it in full.
+     */
+    static void markChanged(ForcedChunksSavedData saveData) {
+        if (getJournal(saveData) == null)
+            saveData.setDirty(true);
+    }
 }
\ No newline at end of file
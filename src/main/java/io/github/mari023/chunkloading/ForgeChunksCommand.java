@@ -0,0 +1,99 @@
+package io.github.mari023.chunkloading;
+
+import com.mojang.brigadier.CommandDispatcher;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
+
+import java.util.List;
+
+/**
+ * The {@code /forgechunks} command, to inspect the forced chunks of the server.
+ */
+public final class ForgeChunksCommand {
+    private static final int MAX_LISTED_MODS = 10;
+    private static final int MAX_LISTED_OWNERS = 20;
+
+    private ForgeChunksCommand() {
+    }
+
+    /**
+     * @apiNote Internal
+     */
+    public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal("forgechunks")
+                .requires(source -> source.hasPermission(2))
+                .then(Commands.literal("stats").executes(context -> stats(context.getSource())))
+                .then(Commands.literal("profile")
+                        .then(Commands.literal("start").executes(context -> startProfiler(context.getSource())))
+                        .then(Commands.literal("stop").executes(context -> stopProfiler(context.getSource())))));
+    }
+
+    private static int startProfiler(CommandSourceStack source) {
+        for (ServerLevel level : source.getServer().getAllLevels()) {
+            ((AdditionalServerLevel) level).getTickProfiler().start();
+        }
+        source.sendSuccess(Component.literal(String.format("Started profiling forced chunks, measuring every %d ticks", ChunkLoadingConfig.PROFILER_SAMPLE_INTERVAL)), true);
+        return 1;
+    }
+
+    private static int stopProfiler(CommandSourceStack source) {
+        int owners = 0;
+        for (ServerLevel level : source.getServer().getAllLevels()) {
+            TickProfiler profiler = ((AdditionalServerLevel) level).getTickProfiler();
+            if (!profiler.isRunning())
+                continue;
+            TickProfiler.Report report = profiler.stop();
+            if (report.sampledTicks() == 0 || report.owners().isEmpty())
+                continue;
+            source.sendSuccess(Component.literal(String.format("%s: most expensive owners over %d sampled ticks, average per tick", level.dimension().location(),
+                    report.sampledTicks())), false);
+            for (int i = 0; i < Math.min(report.owners().size(), MAX_LISTED_OWNERS); i++) {
+                TickProfiler.OwnerCost cost = report.owners().get(i);
+                source.sendSuccess(Component.literal(String.format("  %s %s (%d chunks): %d µs, %d µs block entities, %d µs entities, %d µs chunk ticks",
+                        cost.owner().modId(), cost.owner().owner(), cost.chunks(), perTick(cost.totalNanos(), report), perTick(cost.blockEntityNanos(), report),
+                        perTick(cost.entityNanos(), report), perTick(cost.chunkNanos(), report))), false);
+            }
+            owners += report.owners().size();
+        }
+        if (owners == 0)
+            source.sendSuccess(Component.literal("No time was measured in forced chunks"), false);
+        return owners;
+    }
+
+    private static long perTick(long nanos, TickProfiler.Report report) {
+        return nanos / report.sampledTicks() / 1000;
+    }
+
+    private static int stats(CommandSourceStack source) {
+        int levels = 0;
+        for (ServerLevel level : source.getServer().getAllLevels()) {
+            ChunkLoadingStats.LevelStats stats = ForgeChunkManager.getStats(level);
+            if (stats.forcedChunks() == 0 && stats.blockForcedChunks() == 0 && stats.entityForcedChunks() == 0 && stats.mods().isEmpty())
+                continue;
+            levels++;
+            source.sendSuccess(Component.literal(String.format("%s: %d vanilla forced, %d block forced, %d entity forced, %d force ticking, %d pending reinstatement",
+                    level.dimension().location(), stats.forcedChunks(), stats.blockForcedChunks(), stats.entityForcedChunks(), stats.forcedTickingChunks(),
+                    stats.pendingReinstatements())), false);
+            if (stats.throttleInterval() > 1)
+                source.sendSuccess(Component.literal(String.format("  Throttled: forced chunks without players tick every %d ticks", stats.throttleInterval())), false);
+            List<ChunkLoadingStats.ModStats> mods = stats.mods();
+            for (int i = 0; i < Math.min(mods.size(), MAX_LISTED_MODS); i++) {
+                ChunkLoadingStats.ModStats mod = mods.get(i);
+                source.sendSuccess(Component.literal(String.format("  %s: %d owners, %d tickets, %d ticking tickets, %.1f added and %.1f removed per minute",
+                        mod.modId(), mod.owners(), mod.tickets(), mod.tickingTickets(), mod.addedPerMinute(), mod.removedPerMinute())), false);
+                if (mod.rejected() > 0)
+                    source.sendSuccess(Component.literal(String.format("    %d tickets rejected by quotas", mod.rejected())), false);
+            }
+            if (mods.size() > MAX_LISTED_MODS)
+                source.sendSuccess(Component.literal(String.format("  and %d more mods", mods.size() - MAX_LISTED_MODS)), false);
+        }
+        if (levels == 0)
+            source.sendSuccess(Component.literal("No level has forced chunks"), false);
+        for (ChunkLoadingStats.Operation operation : ChunkLoadingStats.Operation.values()) {
+            source.sendSuccess(Component.literal(String.format("%s: %s", operation.name().toLowerCase(), ChunkLoadingStats.getLatency(operation).summarize())), false);
+        }
+        return levels;
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.mari023.chunkloading;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe histogram of durations in power of two nanosecond buckets, so recording is a few atomic increments and percentiles are accurate to within a
+ * factor of two.
+ */
+public class LatencyHistogram {
+    private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records a duration.
+     */
+    public void record(long nanos) {
+        if (nanos < 0)
+            nanos = 0;
+        buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(nanos) - (nanos == 0 ? 0 : 1));
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Records the time since the given {@link System#nanoTime()}.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Takes a summary of the recorded durations. Durations recorded concurrently may only be partially included.
+     */
+    public Summary summarize() {
+        long count = this.count.get();
+        long[] counts = new long[Long.SIZE];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return new Summary(count, count == 0 ? 0 : totalNanos.get() / count, percentile(counts, count, 0.5), percentile(counts, count, 0.99), maxNanos.get());
+    }
+
+    /**
+     * @return The upper bound of the bucket containing the percentile.
+     */
+    private static long percentile(long[] counts, long count, double percentile) {
+        long target = (long) Math.ceil(count * percentile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target && seen > 0)
+                return i == Long.SIZE - 1 ? Long.MAX_VALUE : (2L << i) - 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Summary of the recorded durations, all in nanoseconds.
+     */
+    public record Summary(long count, long meanNanos, long p50Nanos, long p99Nanos, long maxNanos) {
+        /**
+         * Formats the summary in microseconds.
+         */
+        @Override
+        public String toString() {
+            return String.format("count %d, mean %d µs, p50 < %d µs, p99 < %d µs, max %d µs", count, micros(meanNanos), micros(p50Nanos), micros(p99Nanos), micros(maxNanos));
+        }
+
+        private static long micros(long nanos) {
+            return TimeUnit.NANOSECONDS.toMicros(nanos);
+        }
+    }
+}
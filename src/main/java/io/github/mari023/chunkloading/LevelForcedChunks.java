@@ -0,0 +1,47 @@
+package io.github.mari023.chunkloading;
+
+import net.minecraft.core.BlockPos;
+
+import java.util.UUID;
+
+/**
+ * Counts the distinct chunks forced by the blocks and entities of a level, so chunks forced by both are only counted once. Only the number of chunks forced by
+ * both is kept, which changes when a chunk becomes forced or stops being forced in one tracker while the other one forces it.
+ */
+public final class LevelForcedChunks {
+    private final TicketTracker<BlockPos> blockForcedChunks;
+    private final TicketTracker<UUID> entityForcedChunks;
+    private int sharedChunks;
+
+    /**
+     * Creates the count of the chunks forced by the given trackers, which must be empty.
+     *
+     * @apiNote Internal
+     */
+    public LevelForcedChunks(TicketTracker<BlockPos> blockForcedChunks, TicketTracker<UUID> entityForcedChunks) {
+        this.blockForcedChunks = blockForcedChunks;
+        this.entityForcedChunks = entityForcedChunks;
+        blockForcedChunks.setChunkListener((chunk, forced) -> {
+            if (entityForcedChunks.isForced(chunk))
+                sharedChunks += forced ? 1 : -1;
+        });
+        entityForcedChunks.setChunkListener((chunk, forced) -> {
+            if (blockForcedChunks.isForced(chunk))
+                sharedChunks += forced ? 1 : -1;
+        });
+    }
+
+    /**
+     * Gets the number of distinct chunks forced by any block or entity.
+     */
+    int size() {
+        return blockForcedChunks.getForcedChunkCount() + entityForcedChunks.getForcedChunkCount() - sharedChunks;
+    }
+
+    /**
+     * Checks if any block or entity forces the given chunk.
+     */
+    boolean contains(long chunk) {
+        return blockForcedChunks.isForced(chunk) || entityForcedChunks.isForced(chunk);
+    }
+}
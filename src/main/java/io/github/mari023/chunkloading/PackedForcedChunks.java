@@ -0,0 +1,126 @@
+package io.github.mari023.chunkloading;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Version 2 of the forge forced chunks save format. Format is List{modid, {Owners, Counts, Chunks} per ticket type}, where Owners is a long array of the
+ * packed block positions or of the UUID halves, Counts is an int array of how many chunks each owner forces and Chunks is a long array of all those chunks in
+ * owner order.
+ * <p>
+ * The list is stored under its own key instead of the legacy {@code ForgeForced} key, so older versions find no forge tickets instead of misreading them as
+ * empty legacy entries and saving that back.
+ */
+final class PackedForcedChunks {
+    static final int VERSION = 2;
+    static final String VERSION_KEY = "ForgeForcedVersion";
+    static final String KEY = "ForgeForcedPacked";
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private PackedForcedChunks() {
+    }
+
+    static void write(CompoundTag nbt, TicketSnapshot<BlockPos> blockForcedChunks, TicketSnapshot<UUID> entityForcedChunks) {
+        Map<String, CompoundTag> forcedEntries = new HashMap<>();
+        BiConsumer<BlockPos, LongList> blockWriter = (pos, owners) -> owners.add(pos.asLong());
+        BiConsumer<UUID, LongList> entityWriter = (uuid, owners) -> {
+            owners.add(uuid.getMostSignificantBits());
+            owners.add(uuid.getLeastSignificantBits());
+        };
+        for (Map.Entry<String, TicketSnapshot.ModTickets<BlockPos>> entry : blockForcedChunks.getMods().entrySet()) {
+            CompoundTag forcedEntry = forcedEntries.computeIfAbsent(entry.getKey(), modId -> new CompoundTag());
+            writeOwners(forcedEntry, entry.getValue().chunks(), "Blocks", blockWriter);
+            writeOwners(forcedEntry, entry.getValue().tickingChunks(), "TickingBlocks", blockWriter);
+        }
+        for (Map.Entry<String, TicketSnapshot.ModTickets<UUID>> entry : entityForcedChunks.getMods().entrySet()) {
+            CompoundTag forcedEntry = forcedEntries.computeIfAbsent(entry.getKey(), modId -> new CompoundTag());
+            writeOwners(forcedEntry, entry.getValue().chunks(), "Entities", entityWriter);
+            writeOwners(forcedEntry, entry.getValue().tickingChunks(), "TickingEntities", entityWriter);
+        }
+        ListTag forcedChunks = new ListTag();
+        for (Map.Entry<String, CompoundTag> entry : forcedEntries.entrySet()) {
+            CompoundTag forcedEntry = entry.getValue();
+            forcedEntry.putString("Mod", entry.getKey());
+            forcedChunks.add(forcedEntry);
+        }
+        nbt.putInt(VERSION_KEY, VERSION);
+        nbt.put(KEY, forcedChunks);
+    }
+
+    private static <T> void writeOwners(CompoundTag forcedEntry, TicketSnapshot.Owners<T> owners, String key, BiConsumer<T, LongList> ownerWriter) {
+        if (owners.isEmpty())
+            return;
+        LongList packedOwners = new LongArrayList(owners.owners().size());
+        for (T owner : owners.owners()) {
+            ownerWriter.accept(owner, packedOwners);
+        }
+        forcedEntry.putLongArray(key + "Owners", packedOwners.toLongArray());
+        forcedEntry.putIntArray(key + "Counts", owners.counts());
+        forcedEntry.putLongArray(key + "Chunks", owners.chunks());
+    }
+
+    static void read(CompoundTag nbt, TicketTracker<BlockPos> blockForcedChunks, TicketTracker<UUID> entityForcedChunks) {
+        read(nbt, blockForcedChunks, entityForcedChunks, FabricLoader.getInstance()::isModLoaded);
+    }
+
+    /**
+     * @param modFilter Which mods to read the tickets of, the tickets of other mods are dropped.
+     */
+    static void read(CompoundTag nbt, TicketTracker<BlockPos> blockForcedChunks, TicketTracker<UUID> entityForcedChunks, Predicate<String> modFilter) {
+        ListTag forcedChunks = nbt.getList(KEY, Tag.TAG_COMPOUND);
+        for (int i = 0; i < forcedChunks.size(); i++) {
+            CompoundTag forcedEntry = forcedChunks.getCompound(i);
+            String modId = forcedEntry.getString("Mod");
+            if (modFilter.test(modId)) {
+                OwnerReader<BlockPos> blockReader = (owners, index) -> BlockPos.of(owners[index]);
+                OwnerReader<UUID> entityReader = (owners, index) -> new UUID(owners[index], owners[index + 1]);
+                readOwners(modId, forcedEntry, "Blocks", 1, blockReader, blockForcedChunks, false);
+                readOwners(modId, forcedEntry, "TickingBlocks", 1, blockReader, blockForcedChunks, true);
+                readOwners(modId, forcedEntry, "Entities", 2, entityReader, entityForcedChunks, false);
+                readOwners(modId, forcedEntry, "TickingEntities", 2, entityReader, entityForcedChunks, true);
+            } else {
+                LOGGER.warn("Found chunk loading data for mod {} which is currently not available or active - it will be removed from the level save.", modId);
+            }
+        }
+    }
+
+    private static <T extends Comparable<? super T>> void readOwners(String modId, CompoundTag forcedEntry, String key, int ownerLength, OwnerReader<T> ownerReader,
+                                                                     TicketTracker<T> tracker, boolean ticking) {
+        long[] owners = forcedEntry.getLongArray(key + "Owners");
+        int[] counts = forcedEntry.getIntArray(key + "Counts");
+        long[] chunks = forcedEntry.getLongArray(key + "Chunks");
+        if (owners.length != counts.length * ownerLength) {
+            LOGGER.error("Found {} {} owners for {} chunk counts of mod {}, skipping them.", owners.length / ownerLength, key, counts.length, modId);
+            return;
+        }
+        LongArrayList chunkList = LongArrayList.wrap(chunks);
+        int offset = 0;
+        for (int i = 0; i < counts.length; i++) {
+            int count = counts[i];
+            if (count < 0 || offset + count > chunks.length) {
+                LOGGER.error("Found more {} chunks than stored for mod {}, skipping the remaining ones.", key, modId);
+                return;
+            }
+            tracker.addAll(modId, ownerReader.read(owners, i * ownerLength), chunkList.subList(offset, offset + count), ticking);
+            offset += count;
+        }
+    }
+
+    @FunctionalInterface
+    private interface OwnerReader<T> {
+        T read(long[] owners, int index);
+    }
+}
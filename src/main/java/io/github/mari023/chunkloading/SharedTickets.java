@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+package io.github.mari023.chunkloading;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.server.level.Ticket;
+import net.minecraft.server.level.TicketType;
+
+import javax.annotation.Nullable;
+
+/**
+ * Reference counted tickets, so that any number of owners forcing the same chunk with the same ticket type share a single vanilla {@link Ticket}. The
+ * distance manager only has to be touched when the first reference is acquired or the last one is released.
+ */
+public class SharedTickets {
+    private final Reference2ObjectMap<TicketType<?>, Long2ObjectMap<SharedTicket>> tickets = new Reference2ObjectOpenHashMap<>();
+
+    /**
+     * Acquires a reference to the shared ticket of the given type on the given chunk.
+     *
+     * @param level Ticket level, only used when the ticket is created.
+     * @param key   Ticket key, only used when the ticket is created.
+     * @return The newly created ticket that needs to be added to the distance manager, or {@code null} if the ticket already existed.
+     */
+    @Nullable
+    public <T> Ticket<T> acquire(TicketType<T> type, long chunk, int level, T key) {
+        Long2ObjectMap<SharedTicket> typeTickets = tickets.get(type);
+        if (typeTickets == null) {
+            typeTickets = new Long2ObjectOpenHashMap<>();
+            tickets.put(type, typeTickets);
+        }
+        SharedTicket shared = typeTickets.get(chunk);
+        if (shared != null) {
+            shared.references++;
+            return null;
+        }
+        Ticket<T> ticket = new Ticket<>(type, level, key);
+        typeTickets.put(chunk, new SharedTicket(ticket));
+        return ticket;
+    }
+
+    /**
+     * Releases a reference to the shared ticket of the given type on the given chunk.
+     *
+     * @return The ticket that needs to be removed from the distance manager as this was the last reference, or {@code null} if it is still referenced or
+     * didn't exist.
+     */
+    @Nullable
+    public Ticket<?> release(TicketType<?> type, long chunk) {
+        Long2ObjectMap<SharedTicket> typeTickets = tickets.get(type);
+        if (typeTickets == null)
+            return null;
+        SharedTicket shared = typeTickets.get(chunk);
+        if (shared == null || --shared.references > 0)
+            return null;
+        typeTickets.remove(chunk);
+        return shared.ticket;
+    }
+
+    /**
+     * Gets the number of references to the shared ticket of the given type on the given chunk.
+     */
+    public int getReferences(TicketType<?> type, long chunk) {
+        Long2ObjectMap<SharedTicket> typeTickets = tickets.get(type);
+        if (typeTickets == null)
+            return 0;
+        SharedTicket shared = typeTickets.get(chunk);
+        return shared == null ? 0 : shared.references;
+    }
+
+    private static class SharedTicket {
+        private final Ticket<?> ticket;
+        private int references = 1;
+
+        private SharedTicket(Ticket<?> ticket) {
+            this.ticket = ticket;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.mari023.chunkloading;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ForcedChunksSavedData;
+
+import java.util.UUID;
+
+/**
+ * Publishes the {@link ForcedChunksSnapshot} of a level through a volatile reference. Nothing is published until the snapshot of the level is first asked
+ * for, after that a new snapshot is taken at the end of each tick in which the forced chunks changed.
+ */
+public final class SnapshotPublisher {
+    private volatile ForcedChunksSnapshot snapshot = ForcedChunksSnapshot.EMPTY;
+    private volatile boolean requested;
+    /**
+     * Number of changes to the vanilla forced chunks, which have no version of their own.
+     */
+    private long vanillaVersion;
+
+    /**
+     * Gets the last published snapshot, can be called from any thread. The first call on another thread than the server thread gets an empty snapshot, as
+     * publishing only starts with it.
+     */
+    ForcedChunksSnapshot get(ServerLevel level) {
+        if (!requested) {
+            requested = true;
+            if (level.getServer().isSameThread())
+                publish(level);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Called whenever a vanilla forced chunk was added or removed.
+     *
+     * @apiNote Internal
+     */
+    public void vanillaChanged() {
+        vanillaVersion++;
+    }
+
+    /**
+     * Publishes a new snapshot if the forced chunks changed since the last one, at the end of every tick of the level.
+     *
+     * @apiNote Internal
+     */
+    public void publish(ServerLevel level) {
+        if (!requested)
+            return;
+        ForcedChunksSavedData data = ForgeChunkManager.getForcedChunksData(level);
+        if (data == null)
+            return;
+        TicketTracker<BlockPos> blockForcedChunks = ForgeChunkManager.getBlockForcedChunks(data);
+        TicketTracker<UUID> entityForcedChunks = ForgeChunkManager.getEntityForcedChunks(data);
+        ForcedChunksSnapshot current = snapshot;
+        if (current != ForcedChunksSnapshot.EMPTY && current.isCurrent(vanillaVersion, blockForcedChunks, entityForcedChunks))
+            return;
+        snapshot = ForcedChunksSnapshot.create(current, level.getGameTime(), vanillaVersion, data.getChunks(), blockForcedChunks, entityForcedChunks);
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.mari023.chunkloading;
+
+/**
+ * How much the ticks of a forced chunk may be throttled when the server is overloaded, see {@link TickThrottle}. A chunk forced by several owners uses the
+ * highest priority among them.
+ */
+public enum TickPriority {
+    /**
+     * Never throttled.
+     */
+    HIGH,
+    /**
+     * Ticked every {@link TickThrottle#getInterval() interval} ticks while throttling.
+     */
+    NORMAL,
+    /**
+     * Ticked half as often as {@link #NORMAL} while throttling.
+     */
+    LOW
+}
@@ -0,0 +1,161 @@
+package io.github.mari023.chunkloading;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ForcedChunksSavedData;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sampling profiler attributing the time spent ticking forge forced chunks to the owners forcing them. While running it measures every
+ * {@link ChunkLoadingConfig#PROFILER_SAMPLE_INTERVAL}th tick how long the block entities, entities and chunk ticks, including random ticks, of each forced chunk
+ * take. The time of a chunk is split evenly between all owners forcing it when the report is made.
+ */
+public class TickProfiler {
+    private final Long2ObjectMap<long[]> chunkNanos = new Long2ObjectOpenHashMap<>();
+    private boolean running;
+    private boolean sampling;
+    private int sampledTicks;
+    @Nullable
+    private ForcedChunksSavedData saveData;
+
+    /**
+     * Starts profiling, discarding the results of a previous run.
+     */
+    public void start() {
+        chunkNanos.clear();
+        sampledTicks = 0;
+        running = true;
+    }
+
+    /**
+     * Checks if the profiler is running.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops profiling and makes the report.
+     */
+    public Report stop() {
+        Report report = report();
+        running = false;
+        sampling = false;
+        chunkNanos.clear();
+        return report;
+    }
+
+    /**
+     * Decides if this tick of the level is sampled, called at the start of every tick.
+     */
+    void startTick(ServerLevel level) {
+        sampling = false;
+        if (!running || level.getGameTime() % ChunkLoadingConfig.PROFILER_SAMPLE_INTERVAL != 0)
+            return;
+        saveData = ForgeChunkManager.getForcedChunksData(level);
+        if (saveData != null) {
+            sampling = true;
+            sampledTicks++;
+        }
+    }
+
+    /**
+     * Checks if the given chunk should be measured in this tick. Keep this check cheap, as it runs for every block entity and entity.
+     */
+    public boolean shouldMeasure(long chunk) {
+        return sampling && (ForgeChunkManager.getBlockForcedChunks(saveData).isForced(chunk) || ForgeChunkManager.getEntityForcedChunks(saveData).isForced(chunk));
+    }
+
+    /**
+     * Records time spent ticking a forced chunk.
+     */
+    public void record(long chunk, Category category, long nanos) {
+        long[] times = chunkNanos.get(chunk);
+        if (times == null) {
+            times = new long[Category.values().length];
+            chunkNanos.put(chunk, times);
+        }
+        times[category.ordinal()] += nanos;
+    }
+
+    private Report report() {
+        Map<TicketOwner<?>, OwnerCostBuilder> owners = new HashMap<>();
+        if (saveData != null) {
+            for (Long2ObjectMap.Entry<long[]> entry : chunkNanos.long2ObjectEntrySet()) {
+                TicketTracker.ChunkTickets<?> blockTickets = ForgeChunkManager.getBlockForcedChunks(saveData).getChunkTickets(entry.getLongKey());
+                TicketTracker.ChunkTickets<?> entityTickets = ForgeChunkManager.getEntityForcedChunks(saveData).getChunkTickets(entry.getLongKey());
+                //Owners that stopped forcing the chunk while profiling are no longer known
+                int ownerCount = (blockTickets == null ? 0 : blockTickets.getOwnerCount()) + (entityTickets == null ? 0 : entityTickets.getOwnerCount());
+                if (blockTickets != null)
+                    addCost(owners, blockTickets, entry.getValue(), ownerCount);
+                if (entityTickets != null)
+                    addCost(owners, entityTickets, entry.getValue(), ownerCount);
+            }
+        }
+        List<OwnerCost> costs = new ArrayList<>(owners.size());
+        for (Map.Entry<TicketOwner<?>, OwnerCostBuilder> entry : owners.entrySet()) {
+            long[] nanos = entry.getValue().nanos;
+            costs.add(new OwnerCost(entry.getKey(), entry.getValue().chunks, nanos[Category.BLOCK_ENTITIES.ordinal()], nanos[Category.ENTITIES.ordinal()],
+                    nanos[Category.CHUNK.ordinal()]));
+        }
+        costs.sort(Comparator.comparingLong(OwnerCost::totalNanos).reversed());
+        return new Report(sampledTicks, costs);
+    }
+
+    /**
+     * Splits the time measured in a chunk evenly between the given number of owners forcing it.
+     */
+    private static void addCost(Map<TicketOwner<?>, OwnerCostBuilder> owners, TicketTracker.ChunkTickets<?> tickets, long[] nanos, int ownerCount) {
+        for (int i = 0; i < tickets.getOwnerCount(); i++) {
+            OwnerCostBuilder builder = owners.computeIfAbsent(tickets.getOwner(i), o -> new OwnerCostBuilder());
+            builder.chunks++;
+            for (int j = 0; j < nanos.length; j++) {
+                builder.nanos[j] += nanos[j] / ownerCount;
+            }
+        }
+    }
+
+    /**
+     * What the measured time was spent on.
+     */
+    public enum Category {
+        BLOCK_ENTITIES,
+        ENTITIES,
+        /**
+         * Ticking the chunk itself, mostly random ticks but also weather.
+         */
+        CHUNK
+    }
+
+    /**
+     * The result of a profiler run.
+     *
+     * @param sampledTicks The number of ticks that were measured.
+     * @param owners       The measured time of each owner, the most expensive first.
+     */
+    public record Report(int sampledTicks, List<OwnerCost> owners) {
+    }
+
+    /**
+     * The share of an owner of the time measured in the chunks it forces, summed over all sampled ticks.
+     *
+     * @param chunks Number of measured chunks forced by the owner.
+     */
+    public record OwnerCost(TicketOwner<?> owner, int chunks, long blockEntityNanos, long entityNanos, long chunkNanos) {
+        public long totalNanos() {
+            return blockEntityNanos + entityNanos + chunkNanos;
+        }
+    }
+
+    private static class OwnerCostBuilder {
+        private final long[] nanos = new long[Category.values().length];
+        private int chunks;
+    }
+}
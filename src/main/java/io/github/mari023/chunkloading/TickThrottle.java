@@ -0,0 +1,154 @@
+package io.github.mari023.chunkloading;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2BooleanMap;
+import it.unimi.dsi.fastutil.longs.Long2BooleanOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.ForcedChunksSavedData;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Ticks chunks that are only kept ticking by forge ticking tickets less often while the server is overloaded. Once a second the interval is doubled while the
+ * average tick time is above {@link ChunkLoadingConfig#THROTTLE_MSPT}, up to {@link ChunkLoadingConfig#THROTTLE_MAX_INTERVAL}, and halved again once it
+ * dropped below 80% of it. While the interval is above one, a throttled chunk only gets its chunk ticks, block entity ticks and entity ticks every interval
+ * ticks, staggered by its position so they spread evenly over the ticks. Chunks that would tick entities without forge tickets, chunks with a player close
+ * enough for spawning and chunks of {@link TickPriority#HIGH} owners always tick.
+ */
+public class TickThrottle {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final int ADJUST_INTERVAL = 20;
+
+    private final Map<TicketOwner<?>, TickPriority> ownerPriorities = new HashMap<>();
+    /**
+     * Whether each chunk looked at in the current tick ticks, as block entities and entities of the same chunk ask again.
+     */
+    private final Long2BooleanMap decisions = new Long2BooleanOpenHashMap();
+    private int interval = 1;
+    private long gameTime;
+    @Nullable
+    private ServerLevel level;
+    @Nullable
+    private ForcedChunksSavedData saveData;
+
+    /**
+     * Gets the current throttling interval, {@code 1} if chunks are not throttled.
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * Sets the priority of an owner, overriding the priority configured for its mod. Owner priorities are not saved.
+     *
+     * @param priority The priority, or {@code null} to use the one of its mod again.
+     */
+    public void setOwnerPriority(String modId, BlockPos owner, @Nullable TickPriority priority) {
+        setOwnerPriority(new TicketOwner<>(modId, owner.immutable()), priority);
+    }
+
+    /**
+     * Sets the priority of an entity owner, overriding the priority configured for its mod. Owner priorities are not saved.
+     *
+     * @param priority The priority, or {@code null} to use the one of its mod again.
+     */
+    public void setOwnerPriority(String modId, UUID owner, @Nullable TickPriority priority) {
+        setOwnerPriority(new TicketOwner<>(modId, owner), priority);
+    }
+
+    private void setOwnerPriority(TicketOwner<?> owner, @Nullable TickPriority priority) {
+        if (priority == null)
+            ownerPriorities.remove(owner);
+        else
+            ownerPriorities.put(owner, priority);
+        decisions.clear();
+    }
+
+    /**
+     * Adjusts the interval to the load of the server, called at the start of every tick.
+     */
+    void startTick(ServerLevel level) {
+        if (ChunkLoadingConfig.THROTTLE_MSPT <= 0)
+            return;
+        this.level = level;
+        gameTime = level.getGameTime();
+        decisions.clear();
+        if (gameTime % ADJUST_INTERVAL == 0)
+            adjustInterval(level);
+        saveData = interval > 1 ? ForgeChunkManager.getForcedChunksData(level) : null;
+    }
+
+    private void adjustInterval(ServerLevel level) {
+        float mspt = level.getServer().getAverageTickTime();
+        int previous = interval;
+        if (mspt > ChunkLoadingConfig.THROTTLE_MSPT)
+            interval = Math.min(interval * 2, ChunkLoadingConfig.THROTTLE_MAX_INTERVAL);
+        else if (mspt < ChunkLoadingConfig.THROTTLE_MSPT * 0.8F)
+            interval = Math.max(interval / 2, 1);
+        if (interval != previous)
+            LOGGER.debug("Average tick time is {} ms, ticking forced chunks in {} every {} ticks", mspt, level.dimension().location(), interval);
+    }
+
+    /**
+     * Checks if the given chunk ticks in this tick. Keep this check cheap, as it runs for every block entity and entity.
+     */
+    public boolean shouldTick(long chunk) {
+        if (interval <= 1 || level == null)
+            return true;
+        if (decisions.containsKey(chunk))
+            return decisions.get(chunk);
+        boolean tick = decide(level, chunk);
+        decisions.put(chunk, tick);
+        return tick;
+    }
+
+    private boolean decide(ServerLevel level, long chunk) {
+        AdditionalDistanceManager distanceManager = (AdditionalDistanceManager) level.getChunkSource().distanceManager;
+        //Chunks that tick anyway, like vanilla forced chunks or chunks in simulation distance of a player, aren't throttled
+        if (!distanceManager.shouldForceTicks(chunk) || distanceManager.isEntityTickingWithoutForgeTickets(chunk) ||
+            level.getChunkSource().chunkMap.anyPlayerCloseEnoughForSpawning(new ChunkPos(chunk)))
+            return true;
+        int chunkInterval = switch (getPriority(chunk)) {
+            case HIGH -> 1;
+            case NORMAL -> interval;
+            case LOW -> interval * 2;
+        };
+        return Math.floorMod(gameTime + HashCommon.mix(chunk), chunkInterval) == 0;
+    }
+
+    private TickPriority getPriority(long chunk) {
+        if (saveData == null)
+            return TickPriority.NORMAL;
+        TickPriority priority = null;
+        TicketTracker.ChunkTickets<BlockPos> blockTickets = ForgeChunkManager.getBlockForcedChunks(saveData).getChunkTickets(chunk);
+        if (blockTickets != null) {
+            for (int i = 0; i < blockTickets.getOwnerCount(); i++) {
+                priority = higher(priority, getPriority(blockTickets, i));
+            }
+        }
+        TicketTracker.ChunkTickets<UUID> entityTickets = ForgeChunkManager.getEntityForcedChunks(saveData).getChunkTickets(chunk);
+        if (entityTickets != null) {
+            for (int i = 0; i < entityTickets.getOwnerCount(); i++) {
+                priority = higher(priority, getPriority(entityTickets, i));
+            }
+        }
+        return priority == null ? TickPriority.NORMAL : priority;
+    }
+
+    private TickPriority getPriority(TicketTracker.ChunkTickets<?> tickets, int owner) {
+        //Owners are only looked up if any has a priority of its own
+        TickPriority priority = ownerPriorities.isEmpty() ? null : ownerPriorities.get(tickets.getOwner(owner));
+        return priority == null ? ChunkLoadingConfig.getModTickPriority(tickets.getOwnerModId(owner)) : priority;
+    }
+
+    private static TickPriority higher(@Nullable TickPriority a, TickPriority b) {
+        return a == null || b.ordinal() < a.ordinal() ? b : a;
+    }
+}
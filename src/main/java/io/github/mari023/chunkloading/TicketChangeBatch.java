@@ -0,0 +1,75 @@
+package io.github.mari023.chunkloading;
+
+import net.minecraft.core.BlockPos;
+
+import java.util.UUID;
+
+/**
+ * The forge tickets added to or removed from a level in a tick, in the order they changed. Each change is stored in parallel arrays and read by its index.
+ */
+public final class TicketChangeBatch {
+    static final byte TICKING = 1;
+    static final byte ADDED = 2;
+    static final byte ENTITY = 4;
+
+    private final String[] modIds;
+    private final Object[] owners;
+    private final long[] chunks;
+    private final byte[] flags;
+
+    TicketChangeBatch(String[] modIds, Object[] owners, long[] chunks, byte[] flags) {
+        this.modIds = modIds;
+        this.owners = owners;
+        this.chunks = chunks;
+        this.flags = flags;
+    }
+
+    /**
+     * Gets the number of changes.
+     */
+    public int size() {
+        return chunks.length;
+    }
+
+    /**
+     * Gets the mod of the ticket.
+     */
+    public String getModId(int index) {
+        return modIds[index];
+    }
+
+    /**
+     * Gets the owner of the ticket, a {@link BlockPos} for block tickets and a {@link UUID} for entity tickets.
+     */
+    public Object getOwner(int index) {
+        return owners[index];
+    }
+
+    /**
+     * Checks if the ticket is owned by an entity.
+     */
+    public boolean isEntity(int index) {
+        return (flags[index] & ENTITY) != 0;
+    }
+
+    /**
+     * Gets the chunk of the ticket, in the {@link net.minecraft.world.level.ChunkPos#toLong()} format.
+     */
+    public long getChunk(int index) {
+        return chunks[index];
+    }
+
+    /**
+     * Checks if the ticket is fully ticking.
+     */
+    public boolean isTicking(int index) {
+        return (flags[index] & TICKING) != 0;
+    }
+
+    /**
+     * Checks if the ticket was added, or removed otherwise.
+     */
+    public boolean isAdded(int index) {
+        return (flags[index] & ADDED) != 0;
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.mari023.chunkloading;
+
+import net.minecraft.server.level.ServerLevel;
+
+/**
+ * Listener for the forge tickets added to and removed from a level, see {@link ForgeChunkManager#addChangeListener(TicketChangeListener)}.
+ */
+@FunctionalInterface
+public interface TicketChangeListener {
+    /**
+     * Called on the server thread at the end of a tick of the level with the tickets that changed since the last call, if any did. The tickets of a level
+     * that was just loaded arrive as additions in its first batch.
+     *
+     * @param level   The level the tickets are in.
+     * @param changes The net changes, a ticket that was added and removed again within the tick is left out.
+     */
+    void onChanges(ServerLevel level, TicketChangeBatch changes);
+}
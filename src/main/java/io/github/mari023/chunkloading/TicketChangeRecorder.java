@@ -0,0 +1,131 @@
+package io.github.mari023.chunkloading;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Buffers the changes of the trackers of a level between two deliveries to the {@link TicketChangeListener}s. Nothing is recorded while no listener is
+ * registered. A change that undoes the last buffered change of the same ticket cancels it out instead of being added.
+ * <p>
+ * The buffered changes are found again through the index of the last change of each chunk, with every change linking to the previous change of its chunk, so
+ * recording a change allocates nothing once the buffers have grown.
+ */
+public final class TicketChangeRecorder {
+    private static final byte CANCELLED = 8;
+    private static final int INITIAL_CAPACITY = 64;
+    /**
+     * Capacity above which the buffers are shrunk again after a delivery, so a burst like loading the level doesn't keep them large.
+     */
+    private static final int RETAINED_CAPACITY = 4096;
+
+    private static final byte KEY_FLAGS = TicketChangeBatch.TICKING | TicketChangeBatch.ENTITY;
+
+    /**
+     * Index of the last buffered change of each chunk that changed.
+     */
+    private final Long2IntOpenHashMap lastChanges = new Long2IntOpenHashMap(INITIAL_CAPACITY);
+    private String[] modIds = new String[INITIAL_CAPACITY];
+    private Object[] owners = new Object[INITIAL_CAPACITY];
+    private long[] chunks = new long[INITIAL_CAPACITY];
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+    /**
+     * Index of the previous buffered change of the same chunk, or {@code -1}.
+     */
+    private int[] previousChanges = new int[INITIAL_CAPACITY];
+    private int size;
+    private int cancelled;
+
+    /**
+     * Creates a recorder of the changes of the given trackers.
+     *
+     * @apiNote Internal
+     */
+    public TicketChangeRecorder(TicketTracker<BlockPos> blockForcedChunks, TicketTracker<UUID> entityForcedChunks) {
+        lastChanges.defaultReturnValue(-1);
+        blockForcedChunks.addListener((owner, chunk, ticking, added) -> record(owner.modId(), owner.owner(), chunk, ticking, added, false));
+        entityForcedChunks.addListener((owner, chunk, ticking, added) -> record(owner.modId(), owner.owner(), chunk, ticking, added, true));
+    }
+
+    private void record(String modId, Object owner, long chunk, boolean ticking, boolean added, boolean entity) {
+        if (!ForgeChunkManager.hasChangeListeners())
+            return;
+        byte keyFlags = (byte) ((ticking ? TicketChangeBatch.TICKING : 0) | (entity ? TicketChangeBatch.ENTITY : 0));
+        int last = lastChanges.get(chunk);
+        //Trackers only report actual changes, so a buffered change of the same ticket is always the opposite one
+        for (int i = last; i != -1; i = previousChanges[i]) {
+            if ((flags[i] & (KEY_FLAGS | CANCELLED)) == keyFlags && owners[i].equals(owner) && modIds[i].equals(modId)) {
+                flags[i] |= CANCELLED;
+                cancelled++;
+                return;
+            }
+        }
+        if (size == chunks.length) {
+            int capacity = size * 2;
+            modIds = Arrays.copyOf(modIds, capacity);
+            owners = Arrays.copyOf(owners, capacity);
+            chunks = Arrays.copyOf(chunks, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            previousChanges = Arrays.copyOf(previousChanges, capacity);
+        }
+        modIds[size] = modId;
+        owners[size] = owner;
+        chunks[size] = chunk;
+        flags[size] = (byte) (keyFlags | (added ? TicketChangeBatch.ADDED : 0));
+        previousChanges[size] = last;
+        lastChanges.put(chunk, size);
+        size++;
+    }
+
+    /**
+     * Takes the buffered changes.
+     *
+     * @return The changes, or {@code null} if there are none.
+     */
+    @Nullable
+    TicketChangeBatch drain() {
+        if (size == 0)
+            return null;
+        TicketChangeBatch batch = null;
+        int count = size - cancelled;
+        if (count > 0) {
+            String[] batchModIds = new String[count];
+            Object[] batchOwners = new Object[count];
+            long[] batchChunks = new long[count];
+            byte[] batchFlags = new byte[count];
+            int index = 0;
+            for (int i = 0; i < size; i++) {
+                if ((flags[i] & CANCELLED) == 0) {
+                    batchModIds[index] = modIds[i];
+                    batchOwners[index] = owners[i];
+                    batchChunks[index] = chunks[i];
+                    batchFlags[index] = flags[i];
+                    index++;
+                }
+            }
+            batch = new TicketChangeBatch(batchModIds, batchOwners, batchChunks, batchFlags);
+        }
+        clear();
+        return batch;
+    }
+
+    private void clear() {
+        lastChanges.clear();
+        if (chunks.length > RETAINED_CAPACITY) {
+            lastChanges.trim(INITIAL_CAPACITY);
+            modIds = new String[INITIAL_CAPACITY];
+            owners = new Object[INITIAL_CAPACITY];
+            chunks = new long[INITIAL_CAPACITY];
+            flags = new byte[INITIAL_CAPACITY];
+            previousChanges = new int[INITIAL_CAPACITY];
+        } else {
+            Arrays.fill(modIds, 0, size, null);
+            Arrays.fill(owners, 0, size, null);
+        }
+        size = 0;
+        cancelled = 0;
+    }
+}
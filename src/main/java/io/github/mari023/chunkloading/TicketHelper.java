@@ -70,12 +70,8 @@ public class TicketHelper {
      * Removes all tickets that a given owner was responsible for; both ticking and not ticking.
      */
     private <T extends Comparable<? super T>> void removeAllTickets(TicketTracker<T> tickets, T owner) {
-        TicketOwner<T> ticketOwner = new TicketOwner<>(modId, owner);
-        if (tickets.chunks.containsKey(ticketOwner) || tickets.tickingChunks.containsKey(ticketOwner)) {
-            tickets.chunks.remove(ticketOwner);
-            tickets.tickingChunks.remove(ticketOwner);
-            saveData.setDirty(true);
-        }
+        if (tickets.removeOwner(modId, owner))
+            ForgeChunkManager.markChanged(saveData);
     }
 
     /**
@@ -101,7 +97,7 @@ public class TicketHelper {
     }
 
     private <T extends Comparable<? super T>> void removeTicket(TicketTracker<T> tickets, T owner, long chunk, boolean ticking) {
-        if (tickets.remove(new TicketOwner<>(modId, owner), chunk, ticking))
-            saveData.setDirty(true);
+        if (tickets.remove(modId, owner, chunk, ticking))
+            ForgeChunkManager.markChanged(saveData);
     }
 }
\ No newline at end of file
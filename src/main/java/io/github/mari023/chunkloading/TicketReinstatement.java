@@ -0,0 +1,229 @@
+package io.github.mari023.chunkloading;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongCollection;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persistent tickets waiting to be added back to a level's distance manager, so that reinstating them can be spread over multiple ticks. Tickets are
+ * reinstated fully ticking first and then closest to spawn first, chunks near players can be reinstated ahead of that order.
+ */
+public class TicketReinstatement {
+    private final List<PendingType<?>> types = new ArrayList<>();
+    private LongList order = new LongArrayList();
+    private final List<PendingType<?>> orderTypes = new ArrayList<>();
+    private int cursor;
+    private int total;
+    private int reinstated;
+    /**
+     * The chunk each player was in when the chunks in its view were last reinstated, and the view distance they were reinstated with.
+     */
+    private final Object2LongMap<UUID> playerChunks = new Object2LongOpenHashMap<>();
+    private int viewDistance = -1;
+
+    /**
+     * Queues references to the tickets of the given type on the given chunks, one per occurrence of the chunk.
+     */
+    public <T> void add(TicketType<T> type, LongCollection chunks, int distance, T key, boolean forceTicks) {
+        PendingType<?> pendingType = null;
+        for (PendingType<?> existing : types) {
+            if (existing.type == type) {
+                pendingType = existing;
+                break;
+            }
+        }
+        if (pendingType == null) {
+            pendingType = new PendingType<>(type, distance, key, forceTicks);
+            types.add(pendingType);
+        }
+        for (long chunk : chunks) {
+            if (pendingType.references.addTo(chunk, 1) == 0) {
+                order.add(chunk);
+                orderTypes.add(pendingType);
+            }
+        }
+        total += chunks.size();
+        //The new tickets may be in the view of players that were already looked at
+        playerChunks.clear();
+    }
+
+    /**
+     * Sorts the queued tickets so fully ticking tickets come first, and then the ones closest to the given chunk.
+     */
+    public void sort(int spawnChunkX, int spawnChunkZ) {
+        int size = order.size() - cursor;
+        int[] indices = new int[size];
+        long[] priorities = new long[size];
+        for (int i = 0; i < size; i++) {
+            indices[i] = i;
+            long chunk = order.getLong(cursor + i);
+            long dx = ChunkPos.getX(chunk) - spawnChunkX;
+            long dz = ChunkPos.getZ(chunk) - spawnChunkZ;
+            priorities[i] = (orderTypes.get(cursor + i).forceTicks ? 0 : Long.MIN_VALUE >>> 1) + dx * dx + dz * dz;
+        }
+        IntArrays.quickSort(indices, (a, b) -> Long.compare(priorities[a], priorities[b]));
+        LongList sortedOrder = new LongArrayList(size);
+        List<PendingType<?>> sortedTypes = new ArrayList<>(size);
+        for (int index : indices) {
+            sortedOrder.add(order.getLong(cursor + index));
+            sortedTypes.add(orderTypes.get(cursor + index));
+        }
+        order = sortedOrder;
+        orderTypes.clear();
+        orderTypes.addAll(sortedTypes);
+        cursor = 0;
+    }
+
+    /**
+     * Drops one queued reference to the ticket of the given type on the given chunk, for when a ticket is removed before it got reinstated.
+     *
+     * @return {@code true} if there was a queued reference.
+     */
+    public boolean cancel(TicketType<?> type, long chunk) {
+        for (PendingType<?> pendingType : types) {
+            if (pendingType.type == type) {
+                int references = pendingType.references.get(chunk);
+                if (references == 0)
+                    return false;
+                if (references == 1)
+                    pendingType.references.remove(chunk);
+                else
+                    pendingType.references.put(chunk, references - 1);
+                total--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reinstates the queued tickets in order until the given amount of chunks were reinstated or the deadline passed.
+     *
+     * @param maxChunks     Maximum amount of chunks to reinstate, or {@code 0} for no limit.
+     * @param deadlineNanos {@link System#nanoTime()} after which to stop, or {@code 0} for no limit.
+     * @return The number of chunks that were reinstated.
+     */
+    public int reinstate(AdditionalDistanceManager distanceManager, int maxChunks, long deadlineNanos) {
+        int count = 0;
+        while (cursor < order.size()) {
+            if (maxChunks > 0 && count >= maxChunks || deadlineNanos != 0 && System.nanoTime() - deadlineNanos > 0)
+                break;
+            long chunk = order.getLong(cursor);
+            PendingType<?> pendingType = orderTypes.get(cursor);
+            orderTypes.set(cursor, null);
+            cursor++;
+            if (pendingType.reinstate(distanceManager, chunk))
+                count++;
+        }
+        if (cursor == order.size()) {
+            order = new LongArrayList();
+            orderTypes.clear();
+            cursor = 0;
+        }
+        if (isEmpty())
+            playerChunks.clear();
+        return count;
+    }
+
+    /**
+     * Reinstates all queued tickets on the given chunk, ahead of the queue order.
+     *
+     * @return {@code true} if any ticket was reinstated.
+     */
+    public boolean reinstate(AdditionalDistanceManager distanceManager, long chunk) {
+        boolean reinstated = false;
+        for (PendingType<?> pendingType : types) {
+            reinstated |= pendingType.reinstate(distanceManager, chunk);
+        }
+        return reinstated;
+    }
+
+    /**
+     * Reinstates all queued tickets in the view of the given player, ahead of the queue order. Only the chunks that came into view since the last call for the
+     * player are looked at, so a player that stays in its chunk costs nothing.
+     */
+    public void reinstateInView(AdditionalDistanceManager distanceManager, UUID player, int chunkX, int chunkZ, int viewDistance) {
+        if (viewDistance != this.viewDistance) {
+            playerChunks.clear();
+            this.viewDistance = viewDistance;
+        }
+        long chunk = ChunkPos.asLong(chunkX, chunkZ);
+        boolean seen = playerChunks.containsKey(player);
+        long previous = playerChunks.put(player, chunk);
+        if (seen && previous == chunk)
+            return;
+        int previousX = ChunkPos.getX(previous);
+        int previousZ = ChunkPos.getZ(previous);
+        for (int x = chunkX - viewDistance; x <= chunkX + viewDistance; x++) {
+            if (seen && Math.abs(x - previousX) <= viewDistance) {
+                //Only the part of the column outside the previous view is new
+                for (int z = chunkZ - viewDistance; z <= Math.min(chunkZ + viewDistance, previousZ - viewDistance - 1); z++) {
+                    reinstate(distanceManager, ChunkPos.asLong(x, z));
+                }
+                for (int z = Math.max(chunkZ - viewDistance, previousZ + viewDistance + 1); z <= chunkZ + viewDistance; z++) {
+                    reinstate(distanceManager, ChunkPos.asLong(x, z));
+                }
+            } else {
+                for (int z = chunkZ - viewDistance; z <= chunkZ + viewDistance; z++) {
+                    reinstate(distanceManager, ChunkPos.asLong(x, z));
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if there are no tickets waiting to be reinstated.
+     */
+    public boolean isEmpty() {
+        return reinstated == total;
+    }
+
+    /**
+     * Gets the number of ticket references that were queued, not counting cancelled ones.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets the number of ticket references that were reinstated.
+     */
+    public int getReinstated() {
+        return reinstated;
+    }
+
+    private class PendingType<T> {
+        private final TicketType<T> type;
+        private final int distance;
+        private final T key;
+        private final boolean forceTicks;
+        private final Long2IntMap references = new Long2IntOpenHashMap();
+
+        private PendingType(TicketType<T> type, int distance, T key, boolean forceTicks) {
+            this.type = type;
+            this.distance = distance;
+            this.key = key;
+            this.forceTicks = forceTicks;
+        }
+
+        private boolean reinstate(AdditionalDistanceManager distanceManager, long chunk) {
+            int count = references.remove(chunk);
+            for (int i = 0; i < count; i++) {
+                distanceManager.addRegionTicket(type, chunk, distance, key, forceTicks);
+            }
+            reinstated += count;
+            return count > 0;
+        }
+    }
+}
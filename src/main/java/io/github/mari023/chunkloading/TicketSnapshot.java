@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) Forge Development LLC and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+package io.github.mari023.chunkloading;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable copy of the tickets of a {@link TicketTracker}, grouped by mod. As nothing in it changes after it was taken, it can be read from any thread.
+ *
+ * @see TicketTracker#snapshot()
+ */
+public final class TicketSnapshot<T extends Comparable<? super T>> {
+    private final long version;
+    private final Map<String, ModTickets<T>> mods;
+
+    TicketSnapshot(long version, Map<String, ModTickets<T>> mods) {
+        this.version = version;
+        this.mods = Collections.unmodifiableMap(mods);
+    }
+
+    /**
+     * Gets the {@link TicketTracker#getVersion() version} of the tracker this snapshot was taken at.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the tickets of each mod that has any.
+     */
+    public Map<String, ModTickets<T>> getMods() {
+        return mods;
+    }
+
+    /**
+     * Checks if there were no tickets when this snapshot was taken.
+     */
+    public boolean isEmpty() {
+        return mods.isEmpty();
+    }
+
+    /**
+     * The tickets of a single mod.
+     *
+     * @param chunks        The non-ticking tickets.
+     * @param tickingChunks The fully ticking tickets.
+     */
+    public record ModTickets<T>(Owners<T> chunks, Owners<T> tickingChunks) {
+    }
+
+    /**
+     * The chunks forced by a list of owners, stored in owner order with the chunks of owner {@code i} starting after the chunks of all owners before it.
+     *
+     * @param owners The owners.
+     * @param counts The number of chunks each owner forces, do not modify.
+     * @param chunks The forced chunks of all owners, do not modify.
+     */
+    public record Owners<T>(List<T> owners, int[] counts, long[] chunks) {
+        /**
+         * Checks if there are no owners.
+         */
+        public boolean isEmpty() {
+            return owners.isEmpty();
+        }
+    }
+}
@@ -4,32 +4,115 @@
  */
 package io.github.mari023.chunkloading;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongCollection;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongList;
 import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.longs.LongSets;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.world.level.ChunkPos;
 
+import javax.annotation.Nullable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.LongConsumer;
 
 /**
  * Helper class to manage tracking and handling loaded tickets.
  */
 public class TicketTracker<T extends Comparable<? super T>> {
-    public final Map<TicketOwner<T>, LongSet> chunks = new HashMap<>();
-    public final Map<TicketOwner<T>, LongSet> tickingChunks = new HashMap<>();
+    /**
+     * The owners of each mod that has any, so operations on a single mod only look at its own owners.
+     */
+    private final Map<String, Map<T, SimpleOwnerTickets<T>>> modOwners = new HashMap<>();
+    /**
+     * Reverse index of the owners' chunks, from chunk to the owners forcing it.
+     */
+    private final Long2ObjectMap<ChunkTickets<T>> chunkTickets = new Long2ObjectOpenHashMap<>();
+    private final ChunkRegionIndex regionIndex = new ChunkRegionIndex();
+    /**
+     * Unmodifiable view of the tracked chunks.
+     *
+     * @deprecated The chunks can no longer be modified through this map, use {@link #getChunks()} to read them and the {@code add} and {@code remove} methods
+     * to change them.
+     */
+    @Deprecated
+    public final Map<TicketOwner<T>, LongSet> chunks = new TicketsView(false);
+    /**
+     * Unmodifiable view of the tracked fully ticking chunks.
+     *
+     * @deprecated The chunks can no longer be modified through this map, use {@link #getTickingChunks()} to read them and the {@code add} and {@code remove}
+     * methods to change them.
+     */
+    @Deprecated
+    public final Map<TicketOwner<T>, LongSet> tickingChunks = new TicketsView(true);
+    private final Object2IntMap<String> modTickets = new Object2IntOpenHashMap<>();
+    private final Object2IntMap<String> modTickingTickets = new Object2IntOpenHashMap<>();
+    private int ownersWithChunks;
+    private int ownersWithTickingChunks;
+    private long version;
+    /**
+     * Version of the tickets of each mod that ever held any, kept after the mod's last ticket is removed so a version is never reused.
+     */
+    private final Object2LongMap<String> modVersions = new Object2LongOpenHashMap<>();
+    /**
+     * Number of times a chunk became forced or stopped being forced, or became forced ticking or stopped being forced ticking.
+     */
+    private long chunksVersion;
+    private long tickingChunksVersion;
+    @Nullable
+    private TicketSnapshot<T> snapshot;
+    /**
+     * The tickets of each mod in the last snapshot, with the mod's version they were taken at.
+     */
+    private final Map<String, ModSnapshot<T>> modSnapshots = new HashMap<>();
+    @Nullable
+    private ChangeListener<T> listener;
+    @Nullable
+    private ChunkListener chunkListener;
+    private final boolean insertionOrdered;
+
+    public TicketTracker() {
+        this(false);
+    }
+
+    /**
+     * @param insertionOrdered {@code true} to keep the chunks of each owner in the order they were forced, so the {@link #getOldestChunk(String, Comparable,
+     *                         boolean) oldest} one can be found.
+     */
+    public TicketTracker(boolean insertionOrdered) {
+        this.insertionOrdered = insertionOrdered;
+    }
 
     /**
      * Gets an unmodifiable view of the tracked chunks.
      */
     public Map<TicketOwner<T>, LongSet> getChunks() {
-        return Collections.unmodifiableMap(chunks);
+        return chunks;
     }
 
     /**
      * Gets an unmodifiable view of the tracked fully ticking chunks.
      */
     public Map<TicketOwner<T>, LongSet> getTickingChunks() {
-        return Collections.unmodifiableMap(tickingChunks);
+        return tickingChunks;
     }
 
     /**
@@ -38,33 +121,665 @@ public class TicketTracker<T extends Comparable<? super T>> {
      * @return {@code true} if there are no chunks or ticking chunks being tracked.
      */
     public boolean isEmpty() {
-        return chunks.isEmpty() && tickingChunks.isEmpty();
+        return ownersWithChunks == 0 && ownersWithTickingChunks == 0;
+    }
+
+    /**
+     * Gets the owners forcing the given chunk.
+     *
+     * @return The tickets of the chunk, or {@code null} if no owner is forcing it.
+     */
+    @Nullable
+    public ChunkTickets<T> getChunkTickets(long chunk) {
+        return chunkTickets.get(chunk);
+    }
+
+    /**
+     * Checks if any owner is forcing the given chunk.
+     */
+    public boolean isForced(long chunk) {
+        return chunkTickets.containsKey(chunk);
+    }
+
+    /**
+     * Checks if any owner is forcing the given chunk with a fully ticking ticket.
+     */
+    public boolean isForcedTicking(long chunk) {
+        ChunkTickets<T> tickets = chunkTickets.get(chunk);
+        return tickets != null && tickets.tickingTickets > 0;
+    }
+
+    /**
+     * Passes every chunk forced by any owner in the given rectangle, bounds inclusive, to the consumer.
+     */
+    public void forEachForcedChunk(int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ, LongConsumer consumer) {
+        regionIndex.forEachInRectangle(minChunkX, minChunkZ, maxChunkX, maxChunkZ, consumer);
+    }
+
+    /**
+     * Finds the chunk forced by any owner that is closest to the given chunk.
+     *
+     * @param maxDistance Maximum distance on either axis.
+     * @return The closest forced chunk, or {@code null} if there is none within the distance.
+     */
+    @Nullable
+    public ChunkPos getNearestForcedChunk(int chunkX, int chunkZ, int maxDistance) {
+        return regionIndex.nearest(chunkX, chunkZ, maxDistance);
+    }
+
+    /**
+     * Gets the number of distinct chunks forced by any owner.
+     */
+    public int getForcedChunkCount() {
+        return chunkTickets.size();
     }
 
-    private Map<TicketOwner<T>, LongSet> getTickets(boolean ticking) {
-        return ticking ? tickingChunks : chunks;
+    /**
+     * Gets the distinct chunks forced by any owner, do not modify.
+     */
+    LongSet getForcedChunks() {
+        return chunkTickets.keySet();
+    }
+
+    /**
+     * Gets the number of non-ticking or fully ticking tickets of the given mod, an owner forcing a chunk is one ticket.
+     */
+    public int getModTicketCount(String modId, boolean ticking) {
+        return (ticking ? modTickingTickets : modTickets).getInt(modId);
+    }
+
+    /**
+     * Gets the number of non-ticking or fully ticking chunks forced by the given owner.
+     */
+    public int getOwnerTicketCount(String modId, T owner, boolean ticking) {
+        OwnerTickets<T> ownerTickets = getOwnerTickets(modId, owner);
+        LongSet ticketChunks = ownerTickets == null ? null : ownerTickets.getChunks(ticking);
+        return ticketChunks == null ? 0 : ticketChunks.size();
+    }
+
+    /**
+     * Gets the chunk the given owner forced first out of the ones it still forces, for trackers that are insertion ordered.
+     *
+     * @return The oldest chunk, or {@code null} if the owner doesn't force any chunks.
+     */
+    @Nullable
+    public Long getOldestChunk(String modId, T owner, boolean ticking) {
+        if (!insertionOrdered)
+            throw new IllegalStateException("Tracker is not insertion ordered");
+        OwnerTickets<T> ownerTickets = getOwnerTickets(modId, owner);
+        LongSet ticketChunks = ownerTickets == null ? null : ownerTickets.getChunks(ticking);
+        return ticketChunks == null ? null : ((LongLinkedOpenHashSet) ticketChunks).firstLong();
+    }
+
+    /**
+     * Gets the version of the tracked tickets, which changes whenever a ticket is added or removed.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the version of the set of forced chunks, which only changes when a chunk becomes forced or stops being forced by any owner.
+     */
+    long getChunksVersion() {
+        return chunksVersion;
+    }
+
+    /**
+     * Gets the version of the set of forced ticking chunks, which only changes when a chunk gets its first or loses its last fully ticking ticket.
+     */
+    long getTickingChunksVersion() {
+        return tickingChunksVersion;
+    }
+
+    /**
+     * Takes an immutable snapshot of the tracked tickets. The last snapshot is reused as long as no tickets were added or removed since it was taken, and the
+     * tickets of the mods whose tickets didn't change are reused from it otherwise.
+     */
+    public TicketSnapshot<T> snapshot() {
+        TicketSnapshot<T> snapshot = this.snapshot;
+        if (snapshot == null || snapshot.getVersion() != version) {
+            Set<String> modIds = getModIds();
+            modSnapshots.keySet().retainAll(modIds);
+            Map<String, TicketSnapshot.ModTickets<T>> mods = new HashMap<>(modIds.size());
+            for (String modId : modIds) {
+                long modVersion = modVersions.getLong(modId);
+                ModSnapshot<T> modSnapshot = modSnapshots.get(modId);
+                if (modSnapshot != null && modSnapshot.version() == modVersion) {
+                    mods.put(modId, modSnapshot.tickets());
+                    continue;
+                }
+                OwnersBuilder<T> chunks = new OwnersBuilder<>();
+                OwnersBuilder<T> tickingChunks = new OwnersBuilder<>();
+                for (Iterator<? extends OwnerTickets<T>> iterator = ownerTicketsIterator(modId); iterator.hasNext(); ) {
+                    OwnerTickets<T> ownerTickets = iterator.next();
+                    T owner = ownerTickets.owner();
+                    if (ownerTickets.chunks != null)
+                        chunks.add(owner, ownerTickets.chunks);
+                    if (ownerTickets.tickingChunks != null)
+                        tickingChunks.add(owner, ownerTickets.tickingChunks);
+                }
+                if (!chunks.owners.isEmpty() || !tickingChunks.owners.isEmpty()) {
+                    TicketSnapshot.ModTickets<T> modTickets = new TicketSnapshot.ModTickets<>(chunks.build(), tickingChunks.build());
+                    modSnapshots.put(modId, new ModSnapshot<>(modVersion, modTickets));
+                    mods.put(modId, modTickets);
+                }
+            }
+            this.snapshot = snapshot = new TicketSnapshot<>(version, mods);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Adds a listener that is notified of every ticket that is added or removed, after the listeners added before it.
+     */
+    void addListener(ChangeListener<T> listener) {
+        ChangeListener<T> previous = this.listener;
+        this.listener = previous == null ? listener : (owner, chunk, ticking, added) -> {
+            previous.onChange(owner, chunk, ticking, added);
+            listener.onChange(owner, chunk, ticking, added);
+        };
+    }
+
+    /**
+     * Sets the listener that is notified whenever a chunk becomes forced by its first owner or stops being forced by its last owner.
+     */
+    void setChunkListener(ChunkListener chunkListener) {
+        this.chunkListener = chunkListener;
+    }
+
+    /**
+     * Looks up the tickets of the given owner.
+     */
+    @Nullable
+    OwnerTickets<T> getOwnerTickets(String modId, T owner) {
+        Map<T, SimpleOwnerTickets<T>> owners = modOwners.get(modId);
+        return owners == null ? null : owners.get(owner);
+    }
+
+    /**
+     * Looks up the tickets of the given owner, which may be of the wrong type as it comes from a {@link Map#get(Object)} on one of the views.
+     */
+    @Nullable
+    OwnerTickets<T> getOwnerTickets(TicketOwner<?> owner) {
+        Map<T, SimpleOwnerTickets<T>> owners = modOwners.get(owner.modId());
+        return owners == null ? null : owners.get(owner.owner());
+    }
+
+    OwnerTickets<T> createOwnerTickets(String modId, T owner) {
+        SimpleOwnerTickets<T> ownerTickets = new SimpleOwnerTickets<>(new TicketOwner<>(modId, owner));
+        modOwners.computeIfAbsent(modId, id -> new HashMap<>()).put(owner, ownerTickets);
+        return ownerTickets;
+    }
+
+    void removeOwnerTickets(OwnerTickets<T> ownerTickets) {
+        Map<T, SimpleOwnerTickets<T>> owners = modOwners.get(ownerTickets.modId());
+        if (owners != null && owners.remove(ownerTickets.owner()) != null && owners.isEmpty())
+            modOwners.remove(ownerTickets.modId());
+    }
+
+    Iterator<? extends OwnerTickets<T>> ownerTicketsIterator() {
+        return modOwners.values().stream().flatMap(owners -> owners.values().stream()).iterator();
+    }
+
+    /**
+     * Iterates the owners of the given mod.
+     */
+    Iterator<? extends OwnerTickets<T>> ownerTicketsIterator(String modId) {
+        Map<T, SimpleOwnerTickets<T>> owners = modOwners.get(modId);
+        return owners == null ? Collections.emptyIterator() : owners.values().iterator();
+    }
+
+    /**
+     * Gets the number of owners of the given mod.
+     */
+    int getOwnerCount(String modId) {
+        Map<T, SimpleOwnerTickets<T>> owners = modOwners.get(modId);
+        return owners == null ? 0 : owners.size();
+    }
+
+    /**
+     * Gets the mods that hold tickets in this tracker.
+     */
+    public Set<String> getModIds() {
+        return Collections.unmodifiableSet(modOwners.keySet());
+    }
+
+    private LongSet getOrCreateChunks(OwnerTickets<T> ownerTickets, boolean ticking, int expectedSize) {
+        LongSet ticketChunks = ownerTickets.getChunks(ticking);
+        if (ticketChunks == null) {
+            ticketChunks = insertionOrdered ? new LongLinkedOpenHashSet(expectedSize) : new LongOpenHashSet(expectedSize);
+            ownerTickets.setChunks(ticking, ticketChunks);
+            if (ticking)
+                ownersWithTickingChunks++;
+            else
+                ownersWithChunks++;
+        }
+        return ticketChunks;
+    }
+
+    private void clearChunks(OwnerTickets<T> ownerTickets, boolean ticking) {
+        ownerTickets.setChunks(ticking, null);
+        if (ticking)
+            ownersWithTickingChunks--;
+        else
+            ownersWithChunks--;
+        if (ownerTickets.chunks == null && ownerTickets.tickingChunks == null)
+            removeOwnerTickets(ownerTickets);
     }
 
     /**
      * @return {@code true} if the state changed.
      */
     public boolean remove(TicketOwner<T> owner, long chunk, boolean ticking) {
-        Map<TicketOwner<T>, LongSet> tickets = getTickets(ticking);
-        if (tickets.containsKey(owner)) {
-            LongSet ticketChunks = tickets.get(owner);
+        return remove(owner.modId(), owner.owner(), chunk, ticking);
+    }
+
+    /**
+     * @return {@code true} if the state changed.
+     */
+    public boolean remove(String modId, T owner, long chunk, boolean ticking) {
+        OwnerTickets<T> ownerTickets = getOwnerTickets(modId, owner);
+        if (ownerTickets == null)
+            return false;
+        LongSet ticketChunks = ownerTickets.getChunks(ticking);
+        if (ticketChunks == null || !ticketChunks.remove(chunk))
+            return false;
+        unindex(ownerTickets, chunk, ticking);
+        if (ticketChunks.isEmpty())
+            clearChunks(ownerTickets, ticking);
+        return true;
+    }
+
+    /**
+     * @return {@code true} if the state changed.
+     */
+    public boolean add(TicketOwner<T> owner, long chunk, boolean ticking) {
+        return add(owner.modId(), owner.owner(), chunk, ticking);
+    }
+
+    /**
+     * @return {@code true} if the state changed.
+     */
+    public boolean add(String modId, T owner, long chunk, boolean ticking) {
+        OwnerTickets<T> ownerTickets = getOwnerTickets(modId, owner);
+        if (ownerTickets == null)
+            ownerTickets = createOwnerTickets(modId, owner);
+        if (!getOrCreateChunks(ownerTickets, ticking, 0).add(chunk))
+            return false;
+        index(ownerTickets, chunk, ticking);
+        return true;
+    }
+
+    /**
+     * Adds all the given chunks for the given owner, looking the owner up only once.
+     *
+     * @return The chunks that were not already tracked and therefore changed state.
+     */
+    public LongList addAll(TicketOwner<T> owner, LongCollection chunks, boolean ticking) {
+        return addAll(owner.modId(), owner.owner(), chunks, ticking);
+    }
+
+    /**
+     * Adds all the given chunks for the given owner, looking the owner up only once.
+     *
+     * @return The chunks that were not already tracked and therefore changed state.
+     */
+    public LongList addAll(String modId, T owner, LongCollection chunks, boolean ticking) {
+        LongList changed = new LongArrayList(chunks.size());
+        if (chunks.isEmpty())
+            return changed;
+        OwnerTickets<T> ownerTickets = getOwnerTickets(modId, owner);
+        if (ownerTickets == null)
+            ownerTickets = createOwnerTickets(modId, owner);
+        LongSet ticketChunks = getOrCreateChunks(ownerTickets, ticking, chunks.size());
+        for (long chunk : chunks) {
+            if (ticketChunks.add(chunk)) {
+                index(ownerTickets, chunk, ticking);
+                changed.add(chunk);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Removes all the given chunks for the given owner, looking the owner up only once.
+     *
+     * @return The chunks that were tracked and therefore changed state.
+     */
+    public LongList removeAll(TicketOwner<T> owner, LongCollection chunks, boolean ticking) {
+        return removeAll(owner.modId(), owner.owner(), chunks, ticking);
+    }
+
+    /**
+     * Removes all the given chunks for the given owner, looking the owner up only once.
+     *
+     * @return The chunks that were tracked and therefore changed state.
+     */
+    public LongList removeAll(String modId, T owner, LongCollection chunks, boolean ticking) {
+        OwnerTickets<T> ownerTickets = getOwnerTickets(modId, owner);
+        LongSet ticketChunks = ownerTickets == null ? null : ownerTickets.getChunks(ticking);
+        if (ticketChunks == null)
+            return new LongArrayList();
+        LongList changed = new LongArrayList(Math.min(chunks.size(), ticketChunks.size()));
+        for (long chunk : chunks) {
             if (ticketChunks.remove(chunk)) {
-                if (ticketChunks.isEmpty())
-                    tickets.remove(owner);
-                return true;
+                unindex(ownerTickets, chunk, ticking);
+                changed.add(chunk);
             }
         }
-        return false;
+        if (ticketChunks.isEmpty())
+            clearChunks(ownerTickets, ticking);
+        return changed;
     }
 
     /**
+     * Removes all tickets of the given owner; both ticking and not ticking.
+     *
      * @return {@code true} if the state changed.
      */
-    public boolean add(TicketOwner<T> owner, long chunk, boolean ticking) {
-        return getTickets(ticking).computeIfAbsent(owner, o -> new LongOpenHashSet()).add(chunk);
+    public boolean removeOwner(TicketOwner<T> owner) {
+        return removeOwner(owner.modId(), owner.owner());
+    }
+
+    /**
+     * Removes all tickets of the given owner; both ticking and not ticking.
+     *
+     * @return {@code true} if the state changed.
+     */
+    public boolean removeOwner(String modId, T owner) {
+        OwnerTickets<T> ownerTickets = getOwnerTickets(modId, owner);
+        if (ownerTickets == null)
+            return false;
+        LongSet removed = ownerTickets.chunks;
+        LongSet removedTicking = ownerTickets.tickingChunks;
+        if (removed != null) {
+            for (long chunk : removed) {
+                unindex(ownerTickets, chunk, false);
+            }
+            clearChunks(ownerTickets, false);
+        }
+        if (removedTicking != null) {
+            for (long chunk : removedTicking) {
+                unindex(ownerTickets, chunk, true);
+            }
+            clearChunks(ownerTickets, true);
+        }
+        return true;
+    }
+
+    private void index(OwnerTickets<T> owner, long chunk, boolean ticking) {
+        version++;
+        modVersions.mergeLong(owner.modId(), 1, Long::sum);
+        if (listener != null)
+            listener.onChange(owner, chunk, ticking, true);
+        ChunkTickets<T> tickets = chunkTickets.get(chunk);
+        if (tickets == null) {
+            tickets = new ChunkTickets<>();
+            chunkTickets.put(chunk, tickets);
+            regionIndex.add(chunk);
+            chunksVersion++;
+            if (chunkListener != null)
+                chunkListener.onChunkChange(chunk, true);
+        }
+        //The owner is only missing from the chunk if it doesn't hold the other type of ticket on it
+        LongSet other = owner.getChunks(!ticking);
+        if (other == null || !other.contains(chunk))
+            tickets.owners.add(owner);
+        if (ticking) {
+            if (tickets.tickingTickets++ == 0)
+                tickingChunksVersion++;
+        } else {
+            tickets.tickets++;
+        }
+        (ticking ? modTickingTickets : modTickets).mergeInt(owner.modId(), 1, Integer::sum);
+    }
+
+    private void unindex(OwnerTickets<T> owner, long chunk, boolean ticking) {
+        version++;
+        modVersions.mergeLong(owner.modId(), 1, Long::sum);
+        if (listener != null)
+            listener.onChange(owner, chunk, ticking, false);
+        Object2IntMap<String> modCounts = ticking ? modTickingTickets : modTickets;
+        if (modCounts.mergeInt(owner.modId(), -1, Integer::sum) <= 0)
+            modCounts.removeInt(owner.modId());
+        ChunkTickets<T> tickets = chunkTickets.get(chunk);
+        if (tickets == null)
+            return;
+        LongSet other = owner.getChunks(!ticking);
+        if (other == null || !other.contains(chunk))
+            tickets.owners.remove(owner);
+        if (ticking) {
+            if (--tickets.tickingTickets == 0)
+                tickingChunksVersion++;
+        } else {
+            tickets.tickets--;
+        }
+        if (tickets.owners.isEmpty()) {
+            chunkTickets.remove(chunk);
+            regionIndex.remove(chunk);
+            chunksVersion++;
+            if (chunkListener != null)
+                chunkListener.onChunkChange(chunk, false);
+        }
+    }
+
+    /**
+     * Listener for single tickets being added to or removed from a tracker.
+     */
+    @FunctionalInterface
+    interface ChangeListener<T extends Comparable<? super T>> {
+        void onChange(OwnerTickets<T> owner, long chunk, boolean ticking, boolean added);
+    }
+
+    /**
+     * Listener for chunks becoming forced or no longer being forced by any owner of a tracker.
+     */
+    @FunctionalInterface
+    interface ChunkListener {
+        void onChunkChange(long chunk, boolean forced);
+    }
+
+    /**
+     * The chunks forced by a single owner.
+     */
+    abstract static class OwnerTickets<T extends Comparable<? super T>> {
+        @Nullable
+        private LongSet chunks;
+        @Nullable
+        private LongSet tickingChunks;
+
+        abstract String modId();
+
+        abstract T owner();
+
+        TicketOwner<T> toTicketOwner() {
+            return new TicketOwner<>(modId(), owner());
+        }
+
+        @Nullable
+        LongSet getChunks(boolean ticking) {
+            return ticking ? tickingChunks : chunks;
+        }
+
+        private void setChunks(boolean ticking, @Nullable LongSet chunks) {
+            if (ticking)
+                this.tickingChunks = chunks;
+            else
+                this.chunks = chunks;
+        }
+    }
+
+    private static class SimpleOwnerTickets<T extends Comparable<? super T>> extends OwnerTickets<T> {
+        private final TicketOwner<T> owner;
+
+        private SimpleOwnerTickets(TicketOwner<T> owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        String modId() {
+            return owner.modId();
+        }
+
+        @Override
+        T owner() {
+            return owner.owner();
+        }
+
+        @Override
+        TicketOwner<T> toTicketOwner() {
+            return owner;
+        }
+    }
+
+    private record ModSnapshot<T>(long version, TicketSnapshot.ModTickets<T> tickets) {
+    }
+
+    private static class OwnersBuilder<T> {
+        private final List<T> owners = new ArrayList<>();
+        private final IntArrayList counts = new IntArrayList();
+        private final LongArrayList chunks = new LongArrayList();
+
+        private void add(T owner, LongSet ownerChunks) {
+            owners.add(owner);
+            counts.add(ownerChunks.size());
+            chunks.addAll(ownerChunks);
+        }
+
+        private TicketSnapshot.Owners<T> build() {
+            return new TicketSnapshot.Owners<>(Collections.unmodifiableList(owners), counts.toIntArray(), chunks.toLongArray());
+        }
+    }
+
+    /**
+     * The owners forcing a single chunk, along with how many non-ticking and fully ticking tickets they hold on it.
+     */
+    public static class ChunkTickets<T extends Comparable<? super T>> {
+        private final List<OwnerTickets<T>> owners = new ObjectArrayList<>(2);
+        private int tickets;
+        private int tickingTickets;
+
+        /**
+         * Gets the owners forcing this chunk, as a new list. Use {@link #getOwnerCount()} with {@link #getOwnerModId(int)} or {@link #getOwner(int)} on hot
+         * paths, which don't copy the owners.
+         */
+        public List<TicketOwner<T>> getOwners() {
+            List<TicketOwner<T>> result = new ArrayList<>(owners.size());
+            for (OwnerTickets<T> owner : owners) {
+                result.add(owner.toTicketOwner());
+            }
+            return result;
+        }
+
+        /**
+         * Gets the number of owners forcing this chunk.
+         */
+        public int getOwnerCount() {
+            return owners.size();
+        }
+
+        /**
+         * Gets the mod of the owner at the given index, below {@link #getOwnerCount()}.
+         */
+        public String getOwnerModId(int index) {
+            return owners.get(index).modId();
+        }
+
+        /**
+         * Gets the owner at the given index, below {@link #getOwnerCount()}. Only block owners are created on each call.
+         */
+        public TicketOwner<T> getOwner(int index) {
+            return owners.get(index).toTicketOwner();
+        }
+
+        /**
+         * Gets the number of non-ticking tickets on this chunk.
+         */
+        public int getTicketCount() {
+            return tickets;
+        }
+
+        /**
+         * Gets the number of fully ticking tickets on this chunk.
+         */
+        public int getTickingTicketCount() {
+            return tickingTickets;
+        }
+    }
+
+    /**
+     * Unmodifiable view of the owners holding one type of ticket, the {@link TicketOwner}s are only created when iterating.
+     */
+    private class TicketsView extends AbstractMap<TicketOwner<T>, LongSet> {
+        private final boolean ticking;
+        private final Set<Map.Entry<TicketOwner<T>, LongSet>> entrySet = new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<TicketOwner<T>, LongSet>> iterator() {
+                return new Iterator<>() {
+                    private final Iterator<? extends OwnerTickets<T>> owners = ownerTicketsIterator();
+                    @Nullable
+                    private OwnerTickets<T> next = findNext();
+
+                    @Nullable
+                    private OwnerTickets<T> findNext() {
+                        while (owners.hasNext()) {
+                            OwnerTickets<T> ownerTickets = owners.next();
+                            if (ownerTickets.getChunks(ticking) != null)
+                                return ownerTickets;
+                        }
+                        return null;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next != null;
+                    }
+
+                    @Override
+                    public Map.Entry<TicketOwner<T>, LongSet> next() {
+                        if (next == null)
+                            throw new NoSuchElementException();
+                        Map.Entry<TicketOwner<T>, LongSet> entry = Map.entry(next.toTicketOwner(), LongSets.unmodifiable(next.getChunks(ticking)));
+                        next = findNext();
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return TicketsView.this.size();
+            }
+        };
+
+        private TicketsView(boolean ticking) {
+            this.ticking = ticking;
+        }
+
+        @Override
+        public Set<Map.Entry<TicketOwner<T>, LongSet>> entrySet() {
+            return entrySet;
+        }
+
+        @Override
+        public int size() {
+            return ticking ? ownersWithTickingChunks : ownersWithChunks;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        @Nullable
+        public LongSet get(Object key) {
+            if (!(key instanceof TicketOwner<?> owner))
+                return null;
+            OwnerTickets<T> ownerTickets = getOwnerTickets(owner);
+            LongSet ticketChunks = ownerTickets == null ? null : ownerTickets.getChunks(ticking);
+            return ticketChunks == null ? null : LongSets.unmodifiable(ticketChunks);
+        }
     }
 }
@@ -0,0 +1,121 @@
+package io.github.mari023.chunkloading;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Hierarchical timing wheel of deadlines in ticks. Each level has 64 slots, a slot of level {@code n} covering 64^n ticks, so scheduling an entry and advancing
+ * by a tick take constant time no matter how many entries are scheduled. The entries of a higher level slot are moved down whenever the level below wraps
+ * around to it, and deadlines beyond the highest level wait in an overflow list that is only looked at once per full turn of the wheel.
+ */
+final class TimingWheel<E> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4;
+
+    @SuppressWarnings("unchecked")
+    private final List<Entry<E>>[] slots = new List[LEVELS * SLOTS];
+    private final List<Entry<E>> overflow = new ObjectArrayList<>();
+    private long now;
+    private int size;
+
+    /**
+     * @param now The current tick, entries are due from the next tick on.
+     */
+    TimingWheel(long now) {
+        this.now = now;
+    }
+
+    /**
+     * Gets the last tick the wheel was advanced to.
+     */
+    long getTime() {
+        return now;
+    }
+
+    /**
+     * Gets the number of scheduled entries.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Schedules an entry to be due at the given tick, or the next tick if that has already passed.
+     */
+    void schedule(E value, long deadline) {
+        add(new Entry<>(value, deadline), Math.max(deadline, now + 1));
+        size++;
+    }
+
+    /**
+     * Advances the wheel to the given tick, passing every entry that became due to the consumer along with the deadline it was scheduled for. The consumer may
+     * schedule new entries.
+     */
+    void advance(long time, ObjLongConsumer<E> due) {
+        while (now < time) {
+            now++;
+            //Number of levels above the first whose slot boundary was reached
+            int wrapped = 0;
+            while (wrapped < LEVELS && (now & (1L << SLOT_BITS * (wrapped + 1)) - 1) == 0) {
+                wrapped++;
+            }
+            if (wrapped == LEVELS && !overflow.isEmpty()) {
+                List<Entry<E>> entries = new ObjectArrayList<>(overflow);
+                overflow.clear();
+                for (Entry<E> entry : entries) {
+                    add(entry, entry.deadline);
+                }
+            }
+            for (int level = Math.min(wrapped, LEVELS - 1); level > 0; level--) {
+                List<Entry<E>> entries = take(level * SLOTS + slotIndex(now, level));
+                if (entries != null) {
+                    for (Entry<E> entry : entries) {
+                        add(entry, Math.max(entry.deadline, now));
+                    }
+                }
+            }
+            List<Entry<E>> entries = take(slotIndex(now, 0));
+            if (entries != null) {
+                size -= entries.size();
+                for (Entry<E> entry : entries) {
+                    due.accept(entry.value, entry.deadline);
+                }
+            }
+        }
+    }
+
+    private void add(Entry<E> entry, long deadline) {
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * (level + 1);
+            if (deadline >> shift == now >> shift) {
+                int index = level * SLOTS + slotIndex(deadline, level);
+                List<Entry<E>> entries = slots[index];
+                if (entries == null) {
+                    entries = new ObjectArrayList<>();
+                    slots[index] = entries;
+                }
+                entries.add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    @Nullable
+    private List<Entry<E>> take(int index) {
+        List<Entry<E>> entries = slots[index];
+        slots[index] = null;
+        return entries;
+    }
+
+    private static int slotIndex(long time, int level) {
+        return (int) (time >> SLOT_BITS * level) & SLOTS - 1;
+    }
+
+    private record Entry<E>(E value, long deadline) {
+    }
+}
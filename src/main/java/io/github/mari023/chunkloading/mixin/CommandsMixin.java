@@ -0,0 +1,25 @@
+package io.github.mari023.chunkloading.mixin;
+
+import com.mojang.brigadier.CommandDispatcher;
+import io.github.mari023.chunkloading.ForgeChunksCommand;
+import net.minecraft.commands.CommandBuildContext;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(Commands.class)
+public class CommandsMixin {
+    @Final
+    @Shadow
+    private CommandDispatcher<CommandSourceStack> dispatcher;
+
+    @Inject(method = "<init>", at = @At("RETURN"))
+    private void registerCommands(Commands.CommandSelection commandSelection, CommandBuildContext commandBuildContext, CallbackInfo ci) {
+        ForgeChunksCommand.register(this.dispatcher);
+    }
+}
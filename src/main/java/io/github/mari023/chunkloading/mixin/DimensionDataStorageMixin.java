@@ -0,0 +1,33 @@
+package io.github.mari023.chunkloading.mixin;
+
+import io.github.mari023.chunkloading.ForcedChunksJournal;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraft.world.level.storage.DimensionDataStorage;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.io.File;
+import java.util.function.Function;
+
+@Mixin(DimensionDataStorage.class)
+public class DimensionDataStorageMixin {
+    @Final
+    @Shadow
+    private File dataFolder;
+
+    @Inject(method = "readSavedData", at = @At("HEAD"))
+    private <T extends SavedData> void startReadSavedData(Function<CompoundTag, T> function, String name, CallbackInfoReturnable<T> cir) {
+        //Same as DimensionDataStorage#getDataFile
+        ForcedChunksJournal.setLoadingFile(new File(this.dataFolder, name + ".dat"));
+    }
+
+    @Inject(method = "readSavedData", at = @At("RETURN"))
+    private <T extends SavedData> void endReadSavedData(Function<CompoundTag, T> function, String name, CallbackInfoReturnable<T> cir) {
+        ForcedChunksJournal.setLoadingFile(null);
+    }
+}
@@ -1,7 +1,11 @@
 package io.github.mari023.chunkloading.mixin;
 
 import io.github.mari023.chunkloading.AdditionalDistanceManager;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import io.github.mari023.chunkloading.ForcedTicks;
+import io.github.mari023.chunkloading.ForgeChunkManager;
+import io.github.mari023.chunkloading.SharedTickets;
+import io.github.mari023.chunkloading.TicketReinstatement;
+import it.unimi.dsi.fastutil.longs.LongCollection;
 import net.minecraft.server.level.DistanceManager;
 import net.minecraft.server.level.Ticket;
 import net.minecraft.server.level.TicketType;
@@ -14,7 +18,13 @@ import org.spongepowered.asm.mixin.Shadow;
 
 @Mixin(DistanceManager.class)
 public abstract class DistanceManagerMixin implements AdditionalDistanceManager {
-    private final Long2ObjectOpenHashMap<SortedArraySet<Ticket<?>>> forcedTickets = new Long2ObjectOpenHashMap<>();
+    /**
+     * Highest ticket level at which chunks tick entities, which is also the level of forge tickets.
+     */
+    private static final int ENTITY_TICKING_LEVEL = 31;
+    private final ForcedTicks forcedTickets = new ForcedTicks();
+    private final SharedTickets sharedTickets = new SharedTickets();
+    private final TicketReinstatement ticketReinstatement = new TicketReinstatement();
 
     @Final
     @Shadow
@@ -28,34 +38,100 @@ public abstract class DistanceManagerMixin implements AdditionalDistanceManager
 
     @Override
     public <T> void addRegionTicket(TicketType<T> ticketType, ChunkPos chunkPos, int i, T object, boolean forceTicks) {
-        Ticket<T> ticket = new Ticket<>(ticketType, 33 - i, object);
-        long l = chunkPos.toLong();
+        addRegionTicket(ticketType, chunkPos.toLong(), i, object, forceTicks);
+    }
+
+    @Override
+    public <T> void removeRegionTicket(TicketType<T> ticketType, ChunkPos chunkPos, int i, T object, boolean forceTicks) {
+        removeRegionTicket(ticketType, chunkPos.toLong(), i, object, forceTicks);
+    }
+
+    @Override
+    public <T> void addRegionTickets(TicketType<T> ticketType, LongCollection chunks, int i, T object, boolean forceTicks) {
+        for (long l : chunks) {
+            addRegionTicket(ticketType, l, i, object, forceTicks);
+        }
+    }
+
+    @Override
+    public <T> void removeRegionTickets(TicketType<T> ticketType, LongCollection chunks, int i, T object, boolean forceTicks) {
+        for (long l : chunks) {
+            removeRegionTicket(ticketType, l, i, object, forceTicks);
+        }
+    }
+
+    @Override
+    public <T> void addRegionTicket(TicketType<T> ticketType, long l, int i, T object, boolean forceTicks) {
+        Ticket<T> ticket = sharedTickets.acquire(ticketType, l, 33 - i, object);
+        if (ticket == null) return;
         this.addTicket(l, ticket);
         this.tickingTicketsTracker.addTicket(l, ticket);
 
         if (forceTicks) {
-            SortedArraySet<Ticket<?>> tickets = forcedTickets.computeIfAbsent(l, e -> SortedArraySet.create(4));
-            tickets.addOrGet(ticket);
+            forcedTickets.add(l);
         }
     }
 
     @Override
-    public <T> void removeRegionTicket(TicketType<T> ticketType, ChunkPos chunkPos, int i, T object, boolean forceTicks) {
-        Ticket<T> ticket = new Ticket<>(ticketType, 33 - i, object);
-        long l = chunkPos.toLong();
+    public <T> void removeRegionTicket(TicketType<T> ticketType, long l, int i, T object, boolean forceTicks) {
+        //A ticket that was not reinstated yet only needs to be dropped from the queue
+        if (!ticketReinstatement.isEmpty() && ticketReinstatement.cancel(ticketType, l)) return;
+        Ticket<?> ticket = sharedTickets.release(ticketType, l);
+        if (ticket == null) return;
         this.removeTicket(l, ticket);
         this.tickingTicketsTracker.removeTicket(l, ticket);
 
         if (forceTicks) {
-            SortedArraySet<Ticket<?>> tickets = forcedTickets.get(l);
-            if (tickets != null) {
-                tickets.remove(ticket);
-            }
+            forcedTickets.remove(l);
         }
     }
 
+    @Override
+    public TicketReinstatement getTicketReinstatement() {
+        return ticketReinstatement;
+    }
+
+    @Override
+    public boolean hasForcedTicks() {
+        return !forcedTickets.isEmpty();
+    }
+
+    @Override
     public boolean shouldForceTicks(long chunkPos) {
-        SortedArraySet<Ticket<?>> tickets = forcedTickets.get(chunkPos);
-        return tickets != null && !tickets.isEmpty();
+        return forcedTickets.contains(chunkPos);
+    }
+
+    /**
+     * Forge tickets have the entity ticking level, so they only make their own chunk entity ticking and never bring any chunk below it. A chunk is thus entity
+     * ticking without them if it or a neighbour is below that level, or if it has another ticket at that level.
+     */
+    @Override
+    public boolean isEntityTickingWithoutForgeTickets(long chunkPos) {
+        int level = tickingTicketsTracker.getLevel(chunkPos);
+        if (level > ENTITY_TICKING_LEVEL)
+            return false;
+        if (level < ENTITY_TICKING_LEVEL)
+            return true;
+        SortedArraySet<Ticket<?>> tickets = tickingTicketsTracker.tickets.get(chunkPos);
+        if (tickets != null) {
+            for (Ticket<?> ticket : tickets) {
+                if (ticket.getTicketLevel() <= ENTITY_TICKING_LEVEL && !ForgeChunkManager.isForgeTicketType(ticket.getType()))
+                    return true;
+            }
+        }
+        int x = ChunkPos.getX(chunkPos);
+        int z = ChunkPos.getZ(chunkPos);
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                if ((dx != 0 || dz != 0) && tickingTicketsTracker.getLevel(ChunkPos.asLong(x + dx, z + dz)) < ENTITY_TICKING_LEVEL)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int getForcedTickingChunkCount() {
+        return forcedTickets.size();
     }
 }
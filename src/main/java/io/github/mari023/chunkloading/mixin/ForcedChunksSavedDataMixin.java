@@ -1,5 +1,12 @@
 package io.github.mari023.chunkloading.mixin;
 
+import io.github.mari023.chunkloading.BlockTicketTracker;
+import io.github.mari023.chunkloading.ChunkLeases;
+import io.github.mari023.chunkloading.ChunkLoadingConfig;
+import io.github.mari023.chunkloading.ChunkLoadingStats;
+import io.github.mari023.chunkloading.ForcedChunksJournal;
+import io.github.mari023.chunkloading.LevelForcedChunks;
+import io.github.mari023.chunkloading.TicketChangeRecorder;
 import io.github.mari023.chunkloading.TicketTracker;
 import io.github.mari023.chunkloading.AdditionalForcedChunksSavedData;
 import net.minecraft.core.BlockPos;
@@ -11,21 +18,39 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 @Mixin(ForcedChunksSavedData.class)
 public class ForcedChunksSavedDataMixin implements AdditionalForcedChunksSavedData {
     @Inject(at = @At("RETURN"), method = "load")
     private static void load(CompoundTag compoundTag, CallbackInfoReturnable<ForcedChunksSavedData> cir) {
+        long start = System.nanoTime();
         ForcedChunksSavedDataMixin savedData = (ForcedChunksSavedDataMixin) (Object) cir.getReturnValue();
-        ForgeChunkManager.readForgeForcedChunks(compoundTag, savedData.getBlockForcedChunks(), savedData.getEntityForcedChunks());
+        if (ForgeChunkManager.readForgeForcedChunks(compoundTag, savedData.getBlockForcedChunks(), savedData.getEntityForcedChunks()))
+            cir.getReturnValue().setDirty();
+        savedData.leases.load(compoundTag);
+        if (savedData.journal != null)
+            savedData.journal.load(compoundTag, savedData.getBlockForcedChunks(), savedData.getEntityForcedChunks(), savedData.leases);
+        ChunkLoadingStats.getLatency(ChunkLoadingStats.Operation.LOAD).recordSince(start);
     }
 
     @Inject(at = @At("HEAD"), method = "save")
     public void save(CompoundTag compoundTag, CallbackInfoReturnable<CompoundTag> cir) {
+        long start = System.nanoTime();
         ForgeChunkManager.writeForgeForcedChunks(compoundTag, this.blockForcedChunks, this.entityForcedChunks);
+        ForgeChunkManager.writeLeases(compoundTag, this.leases);
+        ChunkLoadingStats.getLatency(ChunkLoadingStats.Operation.SAVE).recordSince(start);
     }
 
-    private final TicketTracker<BlockPos> blockForcedChunks = new TicketTracker<>();
-    private final TicketTracker<java.util.UUID> entityForcedChunks = new TicketTracker<>();
+    private final TicketTracker<BlockPos> blockForcedChunks = new BlockTicketTracker(ChunkLoadingConfig.QUOTA_EVICT_OLDEST);
+    private final TicketTracker<java.util.UUID> entityForcedChunks = new TicketTracker<>(ChunkLoadingConfig.QUOTA_EVICT_OLDEST);
+    @Nullable
+    private final ForcedChunksJournal journal = ChunkLoadingConfig.JOURNAL ? new ForcedChunksJournal(blockForcedChunks, entityForcedChunks) : null;
+    private final LevelForcedChunks levelForcedChunks = new LevelForcedChunks(blockForcedChunks, entityForcedChunks);
+    private final AtomicBoolean saveFailed = new AtomicBoolean();
+    private final TicketChangeRecorder changeRecorder = new TicketChangeRecorder(blockForcedChunks, entityForcedChunks);
+    private final ChunkLeases leases = new ChunkLeases(blockForcedChunks, entityForcedChunks, journal, () -> ((ForcedChunksSavedData) (Object) this).setDirty());
 
     public TicketTracker<net.minecraft.core.BlockPos> getBlockForcedChunks() {
         return this.blockForcedChunks;
@@ -34,4 +59,29 @@ public class ForcedChunksSavedDataMixin implements AdditionalForcedChunksSavedDa
     public TicketTracker<java.util.UUID> getEntityForcedChunks() {
         return this.entityForcedChunks;
     }
+
+    @Nullable
+    public ForcedChunksJournal getJournal() {
+        return this.journal;
+    }
+
+    public ChunkLeases getLeases() {
+        return this.leases;
+    }
+
+    public TicketChangeRecorder getChangeRecorder() {
+        return this.changeRecorder;
+    }
+
+    public LevelForcedChunks getLevelForcedChunks() {
+        return this.levelForcedChunks;
+    }
+
+    public void markSaveFailed() {
+        this.saveFailed.set(true);
+    }
+
+    public boolean takeSaveFailed() {
+        return this.saveFailed.getAndSet(false);
+    }
 }
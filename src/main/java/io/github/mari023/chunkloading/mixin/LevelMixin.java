@@ -0,0 +1,36 @@
+package io.github.mari023.chunkloading.mixin;
+
+import io.github.mari023.chunkloading.AdditionalServerLevel;
+import io.github.mari023.chunkloading.TickProfiler;
+import io.github.mari023.chunkloading.TickThrottle;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.TickingBlockEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+@Mixin(Level.class)
+public class LevelMixin {
+    /**
+     * Skips block entities in forced chunks that the {@link TickThrottle} throttles this tick, and measures how long block entities in forced chunks take to
+     * tick while the {@link TickProfiler} samples.
+     */
+    @Redirect(method = "tickBlockEntities", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/level/block/entity/TickingBlockEntity;tick()V"))
+    private void tickBlockEntity(TickingBlockEntity blockEntity) {
+        if ((Object) this instanceof AdditionalServerLevel level) {
+            TickThrottle throttle = level.getTickThrottle();
+            long chunk = ChunkPos.asLong(blockEntity.getPos());
+            if (throttle.getInterval() > 1 && !throttle.shouldTick(chunk))
+                return;
+            TickProfiler profiler = level.getTickProfiler();
+            if (profiler.shouldMeasure(chunk)) {
+                long start = System.nanoTime();
+                blockEntity.tick();
+                profiler.record(chunk, TickProfiler.Category.BLOCK_ENTITIES, System.nanoTime() - start);
+                return;
+            }
+        }
+        blockEntity.tick();
+    }
+}
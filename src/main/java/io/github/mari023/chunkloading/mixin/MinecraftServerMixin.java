@@ -1,5 +1,7 @@
 package io.github.mari023.chunkloading.mixin;
 
+import io.github.mari023.chunkloading.ForcedChunksJournal;
+import io.github.mari023.chunkloading.ForcedChunksSaver;
 import io.github.mari023.chunkloading.ForgeChunkManager;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.server.MinecraftServer;
@@ -13,6 +15,7 @@ import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 import java.util.Map;
 
@@ -26,9 +29,28 @@ public class MinecraftServerMixin {
     @Inject(method = "prepareLevels", at = @At("RETURN"))
     private void prepareLevels(ChunkProgressListener chunkProgressListener, CallbackInfo ci) {
         for (ServerLevel serverLevel : this.levels.values()) {
-            ForcedChunksSavedData forcedChunksSavedData = serverLevel.getDataStorage().get(ForcedChunksSavedData::load, "chunks");
+            ForcedChunksSavedData forcedChunksSavedData = ForgeChunkManager.getForcedChunksData(serverLevel);
             if (forcedChunksSavedData == null) continue;
             ForgeChunkManager.reinstatePersistentChunks(serverLevel, forcedChunksSavedData);
         }
     }
+
+    @Inject(method = "saveAllChunks", at = @At("HEAD"))
+    private void compactJournals(boolean suppressLog, boolean flush, boolean forced, CallbackInfoReturnable<Boolean> cir) {
+        if (!flush)
+            return;
+        for (ServerLevel serverLevel : this.levels.values()) {
+            ForcedChunksSavedData forcedChunksSavedData = ForgeChunkManager.getForcedChunksData(serverLevel);
+            if (forcedChunksSavedData == null) continue;
+            ForcedChunksJournal journal = ForgeChunkManager.getJournal(forcedChunksSavedData);
+            if (journal != null)
+                journal.requestCompaction();
+        }
+    }
+
+    @Inject(method = "saveAllChunks", at = @At("RETURN"))
+    private void saveAllChunks(boolean suppressLog, boolean flush, boolean forced, CallbackInfoReturnable<Boolean> cir) {
+        if (flush)
+            ForcedChunksSaver.flush();
+    }
 }
@@ -0,0 +1,23 @@
+package io.github.mari023.chunkloading.mixin;
+
+import io.github.mari023.chunkloading.ChunkLoadingConfig;
+import io.github.mari023.chunkloading.ForcedChunksSaver;
+import net.minecraft.world.level.ForcedChunksSavedData;
+import net.minecraft.world.level.saveddata.SavedData;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import java.io.File;
+
+@Mixin(SavedData.class)
+public class SavedDataMixin {
+    @Inject(method = "save(Ljava/io/File;)V", at = @At("HEAD"), cancellable = true)
+    private void save(File file, CallbackInfo ci) {
+        if ((ChunkLoadingConfig.ASYNC_SAVE || ChunkLoadingConfig.JOURNAL) && (Object) this instanceof ForcedChunksSavedData data) {
+            ForcedChunksSaver.save(data, file);
+            ci.cancel();
+        }
+    }
+}
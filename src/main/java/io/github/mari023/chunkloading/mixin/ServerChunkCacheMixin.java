@@ -0,0 +1,42 @@
+package io.github.mari023.chunkloading.mixin;
+
+import io.github.mari023.chunkloading.AdditionalDistanceManager;
+import io.github.mari023.chunkloading.AdditionalServerLevel;
+import io.github.mari023.chunkloading.TickThrottle;
+import net.minecraft.server.level.ChunkMap;
+import net.minecraft.server.level.DistanceManager;
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+@Mixin(ServerChunkCache.class)
+public class ServerChunkCacheMixin {
+    @Final
+    @Shadow
+    DistanceManager distanceManager;
+
+    @Final
+    @Shadow
+    ServerLevel level;
+
+    /**
+     * Makes chunks with forced ticking tickets get random ticks, spawning and inhabited time even if there is no player nearby, unless the
+     * {@link TickThrottle} throttles them this tick. The forced ticking chunks are checked first as it is a single map probe, which is skipped entirely when the
+     * level has none, while the player check has to look at all players.
+     */
+    @Redirect(method = "tickChunks", at = @At(value = "INVOKE", target = "Lnet/minecraft/server/level/ChunkMap;anyPlayerCloseEnoughForSpawning(Lnet/minecraft/world/level/ChunkPos;)Z"))
+    private boolean anyPlayerCloseEnoughForSpawning(ChunkMap chunkMap, ChunkPos chunkPos) {
+        AdditionalDistanceManager additionalDistanceManager = (AdditionalDistanceManager) this.distanceManager;
+        if (additionalDistanceManager.hasForcedTicks() && additionalDistanceManager.shouldForceTicks(chunkPos.toLong())) {
+            TickThrottle throttle = ((AdditionalServerLevel) this.level).getTickThrottle();
+            //The throttle only skips chunks without a player nearby
+            return throttle.getInterval() <= 1 || throttle.shouldTick(chunkPos.toLong());
+        }
+        return chunkMap.anyPlayerCloseEnoughForSpawning(chunkPos);
+    }
+}
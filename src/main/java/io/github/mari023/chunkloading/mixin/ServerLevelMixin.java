@@ -0,0 +1,187 @@
+package io.github.mari023.chunkloading.mixin;
+
+import io.github.mari023.chunkloading.AdditionalServerLevel;
+import io.github.mari023.chunkloading.ChunkLoadingConfig;
+import io.github.mari023.chunkloading.ChunkLoadingStats;
+import io.github.mari023.chunkloading.ForceChunkQueue;
+import io.github.mari023.chunkloading.ForgeChunkManager;
+import io.github.mari023.chunkloading.SnapshotPublisher;
+import io.github.mari023.chunkloading.TickProfiler;
+import io.github.mari023.chunkloading.TickThrottle;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.ForcedChunksSavedData;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import javax.annotation.Nullable;
+
+import java.util.function.BooleanSupplier;
+
+@Mixin(ServerLevel.class)
+public abstract class ServerLevelMixin implements AdditionalServerLevel {
+    private final ForceChunkQueue forceChunkQueue = new ForceChunkQueue();
+    private final ChunkLoadingStats chunkLoadingStats = new ChunkLoadingStats();
+    private final TickProfiler tickProfiler = new TickProfiler();
+    private final TickThrottle tickThrottle = new TickThrottle();
+    private final SnapshotPublisher snapshotPublisher = new SnapshotPublisher();
+    @Nullable
+    private ForcedChunksSavedData forcedChunksData;
+    private boolean forcedChunksDataResolved;
+    private long measuredEntityChunk;
+    private long measuredEntityStart = -1;
+    private long measuredChunk;
+    private long measuredChunkStart = -1;
+
+    @Shadow
+    public abstract void resetEmptyTime();
+
+    @Inject(method = "tick", at = @At("HEAD"))
+    private void tickReinstatement(BooleanSupplier booleanSupplier, CallbackInfo ci) {
+        ForgeChunkManager.tickReinstatement((ServerLevel) (Object) this);
+    }
+
+    @Inject(method = "tick", at = @At("HEAD"))
+    private void tickLeases(BooleanSupplier booleanSupplier, CallbackInfo ci) {
+        ForgeChunkManager.tickLeases((ServerLevel) (Object) this);
+    }
+
+    @Inject(method = "tick", at = @At("HEAD"))
+    private void tickForceChunkQueue(BooleanSupplier booleanSupplier, CallbackInfo ci) {
+        forceChunkQueue.drain((ServerLevel) (Object) this, ChunkLoadingConfig.QUEUE_MAX_PER_TICK);
+    }
+
+    @Inject(method = "tick", at = @At("HEAD"))
+    private void startProfilerTick(BooleanSupplier booleanSupplier, CallbackInfo ci) {
+        tickProfiler.startTick((ServerLevel) (Object) this);
+    }
+
+    @Inject(method = "tick", at = @At("HEAD"))
+    private void startThrottleTick(BooleanSupplier booleanSupplier, CallbackInfo ci) {
+        tickThrottle.startTick((ServerLevel) (Object) this);
+    }
+
+    @Inject(method = "tick", at = @At("RETURN"))
+    private void deliverTicketChanges(BooleanSupplier booleanSupplier, CallbackInfo ci) {
+        ForgeChunkManager.deliverChanges((ServerLevel) (Object) this);
+    }
+
+    @Inject(method = "tick", at = @At("RETURN"))
+    private void publishSnapshot(BooleanSupplier booleanSupplier, CallbackInfo ci) {
+        snapshotPublisher.publish((ServerLevel) (Object) this);
+    }
+
+    /**
+     * Skips the ticks of entities in forced chunks that are throttled this tick, passengers included.
+     */
+    @Inject(method = "tickNonPassenger", at = @At("HEAD"), cancellable = true)
+    private void throttleEntityTick(Entity entity, CallbackInfo ci) {
+        if (tickThrottle.getInterval() > 1 && !tickThrottle.shouldTick(entity.chunkPosition().toLong()))
+            ci.cancel();
+    }
+
+    @Inject(method = "tickNonPassenger", at = @At("HEAD"))
+    private void startEntityTick(Entity entity, CallbackInfo ci) {
+        long chunk = entity.chunkPosition().toLong();
+        if (tickProfiler.shouldMeasure(chunk)) {
+            measuredEntityChunk = chunk;
+            measuredEntityStart = System.nanoTime();
+        } else {
+            measuredEntityStart = -1;
+        }
+    }
+
+    @Inject(method = "tickNonPassenger", at = @At("RETURN"))
+    private void endEntityTick(Entity entity, CallbackInfo ci) {
+        if (measuredEntityStart != -1) {
+            tickProfiler.record(measuredEntityChunk, TickProfiler.Category.ENTITIES, System.nanoTime() - measuredEntityStart);
+            measuredEntityStart = -1;
+        }
+    }
+
+    @Inject(method = "tickChunk", at = @At("HEAD"))
+    private void startChunkTick(LevelChunk levelChunk, int randomTickSpeed, CallbackInfo ci) {
+        long chunk = levelChunk.getPos().toLong();
+        if (tickProfiler.shouldMeasure(chunk)) {
+            measuredChunk = chunk;
+            measuredChunkStart = System.nanoTime();
+        } else {
+            measuredChunkStart = -1;
+        }
+    }
+
+    @Inject(method = "tickChunk", at = @At("RETURN"))
+    private void endChunkTick(LevelChunk levelChunk, int randomTickSpeed, CallbackInfo ci) {
+        if (measuredChunkStart != -1) {
+            tickProfiler.record(measuredChunk, TickProfiler.Category.CHUNK, System.nanoTime() - measuredChunkStart);
+            measuredChunkStart = -1;
+        }
+    }
+
+    @Override
+    public ForceChunkQueue getForceChunkQueue() {
+        return forceChunkQueue;
+    }
+
+    @Override
+    public ChunkLoadingStats getChunkLoadingStats() {
+        return chunkLoadingStats;
+    }
+
+    @Override
+    public TickProfiler getTickProfiler() {
+        return tickProfiler;
+    }
+
+    @Override
+    public TickThrottle getTickThrottle() {
+        return tickThrottle;
+    }
+
+    @Override
+    public SnapshotPublisher getSnapshotPublisher() {
+        return snapshotPublisher;
+    }
+
+    @Nullable
+    @Override
+    public ForcedChunksSavedData getForcedChunksData() {
+        if (!forcedChunksDataResolved) {
+            forcedChunksData = ((ServerLevel) (Object) this).getDataStorage().get(ForcedChunksSavedData::load, "chunks");
+            forcedChunksDataResolved = true;
+        }
+        return forcedChunksData;
+    }
+
+    @Override
+    public void setForcedChunksData(ForcedChunksSavedData data) {
+        forcedChunksData = data;
+        forcedChunksDataResolved = true;
+    }
+
+    /**
+     * Vanilla creates the forced chunks when a chunk is first forced with {@code /forceload}, which has to be picked up if it was looked up before that.
+     */
+    @Inject(method = "setChunkForced", at = @At("RETURN"))
+    private void setChunkForced(int chunkX, int chunkZ, boolean add, CallbackInfoReturnable<Boolean> cir) {
+        if (forcedChunksData == null)
+            forcedChunksDataResolved = false;
+        if (cir.getReturnValueZ())
+            snapshotPublisher.vanillaChanged();
+    }
+
+    /**
+     * Vanilla only keeps ticking entities in a level without players if it has vanilla forced chunks, this is only reached when there are no players so we
+     * reset the empty time when there are forge forced chunks as well.
+     */
+    @Inject(method = "tick", at = @At(value = "INVOKE", target = "Lnet/minecraft/server/level/ServerLevel;getForcedChunks()Lit/unimi/dsi/fastutil/longs/LongSet;"))
+    private void tick(BooleanSupplier booleanSupplier, CallbackInfo ci) {
+        if (ForgeChunkManager.hasForcedChunks((ServerLevel) (Object) this))
+            this.resetEmptyTime();
+    }
+}